@@ -0,0 +1,67 @@
+package com.adityachandel.booklore.bench;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.config.PdfLoadingProperties;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.service.fileprocessor.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileProcessorBenchmark {
+
+    @Param({"PDF", "EPUB"})
+    public BookFileType bookFileType;
+
+    private FileProcessor processor;
+    private List<LibraryFile> libraryFiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        FileProcessingUtils fileProcessingUtils = new FileProcessingUtils(new AppProperties());
+        processor = bookFileType == BookFileType.PDF
+                ? new PdfProcessor(null, null, null, fileProcessingUtils, new PdfCoverRenderer(), new PdfDocumentLoader(new PdfLoadingProperties(), new SimpleMeterRegistry()))
+                : new EpubProcessor(null, null, null, fileProcessingUtils, new EpubInspector());
+
+        Path corpusDir = SyntheticCorpus.resolve("booklore.bench.corpus");
+        LibraryPathEntity libraryPath = LibraryPathEntity.builder().path(corpusDir.toString()).build();
+        String extension = bookFileType == BookFileType.PDF ? ".pdf" : ".epub";
+        try (Stream<Path> files = Files.list(corpusDir)) {
+            libraryFiles = files
+                    .filter(file -> file.getFileName().toString().toLowerCase().endsWith(extension))
+                    .map(file -> LibraryFile.builder()
+                            .libraryPathEntity(libraryPath)
+                            .fileSubPath("")
+                            .fileName(file.getFileName().toString())
+                            .bookFileType(bookFileType)
+                            .build())
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public void parseMetadata(Blackhole blackhole) throws IOException {
+        for (LibraryFile libraryFile : libraryFiles) {
+            blackhole.consume(processor.parseFile(libraryFile));
+        }
+    }
+
+    @Benchmark
+    public void generateCover(Blackhole blackhole) throws IOException {
+        for (LibraryFile libraryFile : libraryFiles) {
+            blackhole.consume(processor.generateCover(libraryFile));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.adityachandel.booklore.bench;
+
+import com.adityachandel.booklore.BookloreApplication;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.LibraryProcessingService;
+import com.adityachandel.booklore.service.ingestion.CoverGenerationQueue;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MariaDBContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class LibraryIngestionBenchmark {
+
+    private MariaDBContainer<?> mariadb;
+    private ConfigurableApplicationContext context;
+    private LibraryRepository libraryRepository;
+    private LibraryProcessingService libraryProcessingService;
+    private CoverGenerationQueue coverGenerationQueue;
+    private Path corpusDir;
+    private long libraryId;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("resource")
+    public void startApplication() throws IOException {
+        corpusDir = SyntheticCorpus.resolve("booklore.bench.corpus");
+        mariadb = new MariaDBContainer<>("mariadb:11.4.5")
+                .withDatabaseName("booklore")
+                .withUsername("root")
+                .withPassword("password");
+        mariadb.start();
+        context = new SpringApplicationBuilder(BookloreApplication.class)
+                .properties(
+                        "spring.datasource.url=" + mariadb.getJdbcUrl(),
+                        "spring.datasource.username=" + mariadb.getUsername(),
+                        "spring.datasource.password=" + mariadb.getPassword(),
+                        "app.path-config=" + Files.createTempDirectory("booklore-bench-config"),
+                        "server.port=0")
+                .run();
+        libraryRepository = context.getBean(LibraryRepository.class);
+        libraryProcessingService = context.getBean(LibraryProcessingService.class);
+        coverGenerationQueue = context.getBean(CoverGenerationQueue.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void createLibrary() {
+        LibraryEntity library = LibraryEntity.builder().name("bench-" + iteration++).icon("pi pi-book").build();
+        library.setLibraryPaths(new ArrayList<>(List.of(LibraryPathEntity.builder().path(corpusDir.toString()).library(library).build())));
+        libraryId = libraryRepository.save(library).getId();
+    }
+
+    @Benchmark
+    public void processLibrary() throws IOException, InterruptedException {
+        libraryProcessingService.processLibrary(libraryId);
+        while (coverGenerationQueue.getPending() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+        if (mariadb != null) {
+            mariadb.stop();
+        }
+    }
+}
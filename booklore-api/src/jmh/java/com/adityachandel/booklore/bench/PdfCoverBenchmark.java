@@ -0,0 +1,63 @@
+package com.adityachandel.booklore.bench;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.service.fileprocessor.FileProcessingUtils;
+import com.adityachandel.booklore.service.fileprocessor.PdfCoverRenderer;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfCoverBenchmark {
+
+    @Param({"RENDER_300_DPI", "RENDER_TO_TARGET", "EMBEDDED_OR_TARGET"})
+    public String strategy;
+
+    private final PdfCoverRenderer renderer = new PdfCoverRenderer();
+    private final FileProcessingUtils fileProcessingUtils = new FileProcessingUtils(new AppProperties());
+    private final List<PDDocument> documents = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        Path corpusDir = SyntheticCorpus.resolve("booklore.bench.pdf-corpus");
+        try (Stream<Path> files = Files.list(corpusDir)) {
+            for (Path file : files.filter(f -> f.toString().toLowerCase().endsWith(".pdf")).toList()) {
+                documents.add(Loader.loadPDF(file.toFile()));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeCorpus() throws IOException {
+        for (PDDocument document : documents) {
+            document.close();
+        }
+        documents.clear();
+    }
+
+    @Benchmark
+    public void renderCovers(Blackhole blackhole) throws IOException {
+        for (PDDocument document : documents) {
+            BufferedImage cover = switch (strategy) {
+                case "RENDER_300_DPI" -> new PDFRenderer(document).renderImageWithDPI(0, 300, ImageType.RGB);
+                case "RENDER_TO_TARGET" -> renderer.renderToTarget(document, FileProcessingUtils.THUMBNAIL_WIDTH, FileProcessingUtils.THUMBNAIL_HEIGHT);
+                default -> renderer.renderCover(document, FileProcessingUtils.THUMBNAIL_WIDTH, FileProcessingUtils.THUMBNAIL_HEIGHT);
+            };
+            blackhole.consume(fileProcessingUtils.createThumbnail(cover));
+        }
+    }
+}
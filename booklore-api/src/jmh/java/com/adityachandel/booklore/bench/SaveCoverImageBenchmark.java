@@ -0,0 +1,45 @@
+package com.adityachandel.booklore.bench;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.service.fileprocessor.FileProcessingUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SaveCoverImageBenchmark {
+
+    @Param({"600x900", "1200x1800", "2480x3508"})
+    public String coverSize;
+
+    private FileProcessingUtils fileProcessingUtils;
+    private BufferedImage cover;
+    private long bookId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setPathConfig(Files.createTempDirectory("booklore-bench-config").toString());
+        fileProcessingUtils = new FileProcessingUtils(appProperties);
+
+        String[] dimensions = coverSize.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        cover = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = cover.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, width, height, Color.ORANGE));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public boolean saveCoverImage() throws IOException {
+        return fileProcessingUtils.saveCoverImage(cover, bookId++ % 1000);
+    }
+}
@@ -0,0 +1,239 @@
+package com.adityachandel.booklore.bench;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public final class SyntheticCorpus {
+
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore et dolore magna aliqua.";
+
+    private final int books;
+    private final int pages;
+    private final int coverWidth;
+    private final int coverHeight;
+    private final int authorsPerBook;
+    private final int categoriesPerBook;
+    private final Random random = new Random(42);
+
+    private SyntheticCorpus(int books, int pages, int coverWidth, int coverHeight, int authorsPerBook, int categoriesPerBook) {
+        this.books = books;
+        this.pages = pages;
+        this.coverWidth = coverWidth;
+        this.coverHeight = coverHeight;
+        this.authorsPerBook = authorsPerBook;
+        this.categoriesPerBook = categoriesPerBook;
+    }
+
+    public static SyntheticCorpus fromSystemProperties() {
+        return new SyntheticCorpus(
+                Integer.getInteger("booklore.bench.books", 50),
+                Integer.getInteger("booklore.bench.pages", 20),
+                Integer.getInteger("booklore.bench.cover-width", 1200),
+                Integer.getInteger("booklore.bench.cover-height", 1800),
+                Integer.getInteger("booklore.bench.authors-per-book", 2),
+                Integer.getInteger("booklore.bench.categories-per-book", 3));
+    }
+
+    public static Path resolve(String corpusProperty) throws IOException {
+        String corpus = System.getProperty(corpusProperty);
+        if (corpus != null) {
+            return Path.of(corpus);
+        }
+        Path corpusDir = Files.createTempDirectory("booklore-corpus");
+        fromSystemProperties().writeTo(corpusDir);
+        return corpusDir;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (int i = 0; i < books; i++) {
+            BufferedImage cover = createCover(i);
+            writePdf(directory.resolve("synthetic-" + i + ".pdf"), i, cover);
+            writeEpub(directory.resolve("synthetic-" + i + ".epub"), i, cover);
+        }
+    }
+
+    private BufferedImage createCover(int index) {
+        BufferedImage cover = new BufferedImage(coverWidth, coverHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = cover.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xFFFFFF)), coverWidth, coverHeight, new Color(random.nextInt(0xFFFFFF))));
+        graphics.fillRect(0, 0, coverWidth, coverHeight);
+        graphics.setColor(Color.WHITE);
+        graphics.setFont(new Font(Font.SERIF, Font.BOLD, Math.max(12, coverWidth / 12)));
+        graphics.drawString(title(index), coverWidth / 10, coverHeight / 3);
+        graphics.dispose();
+        return cover;
+    }
+
+    private void writePdf(Path path, int index, BufferedImage cover) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation information = new PDDocumentInformation();
+            information.setTitle(title(index));
+            information.setAuthor(String.join(" & ", authors(index)));
+            information.setSubject(String.join(", ", categories(index)));
+            document.setDocumentInformation(information);
+
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+            PDPage coverPage = new PDPage(PDRectangle.A4);
+            document.addPage(coverPage);
+            try (PDPageContentStream content = new PDPageContentStream(document, coverPage)) {
+                if (index % 2 == 0) {
+                    PDImageXObject coverImage = JPEGFactory.createFromImage(document, cover, 0.85f);
+                    content.drawImage(coverImage, 0, 0, coverPage.getMediaBox().getWidth(), coverPage.getMediaBox().getHeight());
+                } else {
+                    content.setNonStrokingColor(new Color(random.nextInt(0xFFFFFF)));
+                    content.addRect(0, 0, coverPage.getMediaBox().getWidth(), coverPage.getMediaBox().getHeight());
+                    content.fill();
+                    content.beginText();
+                    content.setFont(font, 36);
+                    content.setNonStrokingColor(Color.WHITE);
+                    content.newLineAtOffset(60, 600);
+                    content.showText(title(index));
+                    content.endText();
+                }
+            }
+
+            for (int page = 1; page < pages; page++) {
+                PDPage textPage = new PDPage(PDRectangle.A4);
+                document.addPage(textPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, textPage)) {
+                    content.beginText();
+                    content.setFont(font, 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 780);
+                    for (int line = 0; line < 50; line++) {
+                        content.showText(LOREM);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(path.toFile());
+        }
+    }
+
+    private void writeEpub(Path path, int index, BufferedImage cover) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(path))) {
+            byte[] mimetype = "application/epub+zip".getBytes(StandardCharsets.US_ASCII);
+            ZipEntry mimetypeEntry = new ZipEntry("mimetype");
+            mimetypeEntry.setMethod(ZipEntry.STORED);
+            mimetypeEntry.setSize(mimetype.length);
+            CRC32 crc = new CRC32();
+            crc.update(mimetype);
+            mimetypeEntry.setCrc(crc.getValue());
+            zip.putNextEntry(mimetypeEntry);
+            zip.write(mimetype);
+            zip.closeEntry();
+
+            writeEntry(zip, "META-INF/container.xml", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+                      <rootfiles>
+                        <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+                      </rootfiles>
+                    </container>
+                    """.getBytes(StandardCharsets.UTF_8));
+            writeEntry(zip, "OEBPS/content.opf", opf(index).getBytes(StandardCharsets.UTF_8));
+            ByteArrayOutputStream coverBytes = new ByteArrayOutputStream();
+            ImageIO.write(cover, "jpg", coverBytes);
+            writeEntry(zip, "OEBPS/images/cover.jpg", coverBytes.toByteArray());
+            for (int chapter = 1; chapter < pages; chapter++) {
+                writeEntry(zip, "OEBPS/chapter-" + chapter + ".xhtml", chapter(chapter).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private String opf(int index) {
+        StringBuilder metadata = new StringBuilder();
+        metadata.append("    <dc:title>").append(title(index)).append("</dc:title>\n");
+        for (String author : authors(index)) {
+            metadata.append("    <dc:creator>").append(author).append("</dc:creator>\n");
+        }
+        for (String category : categories(index)) {
+            metadata.append("    <dc:subject>").append(category).append("</dc:subject>\n");
+        }
+        metadata.append("    <dc:identifier id=\"isbn\">").append(9780000000000L + index).append("</dc:identifier>\n");
+        metadata.append("    <dc:publisher>Synthetic Press</dc:publisher>\n");
+        metadata.append("    <dc:date>2020-01-01</dc:date>\n");
+        metadata.append("    <dc:language>en</dc:language>\n");
+        metadata.append("    <dc:description>").append(LOREM).append("</dc:description>\n");
+        metadata.append("    <meta name=\"cover\" content=\"cover-image\"/>\n");
+
+        StringBuilder manifest = new StringBuilder();
+        StringBuilder spine = new StringBuilder();
+        manifest.append("    <item id=\"cover-image\" href=\"images/cover.jpg\" media-type=\"image/jpeg\" properties=\"cover-image\"/>\n");
+        for (int chapter = 1; chapter < pages; chapter++) {
+            manifest.append("    <item id=\"chapter-").append(chapter).append("\" href=\"chapter-").append(chapter).append(".xhtml\" media-type=\"application/xhtml+xml\"/>\n");
+            spine.append("    <itemref idref=\"chapter-").append(chapter).append("\"/>\n");
+        }
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <package xmlns="http://www.idpf.org/2007/opf" version="3.0" unique-identifier="isbn">
+                  <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                %s  </metadata>
+                  <manifest>
+                %s  </manifest>
+                  <spine>
+                %s  </spine>
+                </package>
+                """.formatted(metadata, manifest, spine);
+    }
+
+    private static String chapter(int chapter) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <html xmlns="http://www.w3.org/1999/xhtml"><head><title>Chapter %d</title></head>
+                <body><h1>Chapter %d</h1><p>%s</p></body></html>
+                """.formatted(chapter, chapter, LOREM.repeat(40));
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static String title(int index) {
+        return "Synthetic Book " + index;
+    }
+
+    private String[] authors(int index) {
+        String[] authors = new String[authorsPerBook];
+        for (int i = 0; i < authorsPerBook; i++) {
+            authors[i] = "Author " + ((index + i) % 25);
+        }
+        return authors;
+    }
+
+    private String[] categories(int index) {
+        String[] categories = new String[categoriesPerBook];
+        for (int i = 0; i < categoriesPerBook; i++) {
+            categories[i] = "Category " + ((index * 7 + i) % 15);
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,38 @@
+package com.adityachandel.booklore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.ingestion")
+@Getter
+@Setter
+public class IngestionProperties {
+    private int readConcurrency = 16;
+    private int parseThreads = 0;
+    private int writeQueueCapacity = 64;
+    private int writeBatchSize = 50;
+    private int coverThreads = 0;
+    private int coverQueueCapacity = 256;
+    private Duration moveDetectionWindow = Duration.ofSeconds(10);
+    private Duration fileTimeout = Duration.ofMinutes(2);
+    private DataSize fileMemoryBudget = DataSize.ofMegabytes(1024);
+    private Duration progressInterval = Duration.ofSeconds(1);
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+    private int jobHistorySize = 50;
+    private double maxRemovedFraction = 0.5;
+    private int removalGuardMinBooks = 10;
+
+    public int resolveParseThreads() {
+        return parseThreads > 0 ? parseThreads : Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    public int resolveCoverThreads() {
+        return coverThreads > 0 ? coverThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+}
@@ -0,0 +1,36 @@
+package com.adityachandel.booklore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.monitoring")
+@Getter
+@Setter
+public class MonitoringProperties {
+    private int maxWatches = 0;
+    private double watchBudgetFraction = 0.8;
+    private Duration fallbackRescanInterval = Duration.ofMinutes(5);
+    private Duration quietPeriod = Duration.ofSeconds(2);
+    private int eventThreads = 0;
+    private int eventQueueCapacity = 10000;
+    private int maxPendingEvents = 10000;
+    private Duration eventShutdownGracePeriod = Duration.ofSeconds(10);
+    private Duration pollMinInterval = Duration.ofSeconds(15);
+    private Duration pollMaxInterval = Duration.ofMinutes(5);
+    private Duration pollContentCheckInterval = Duration.ofMinutes(30);
+
+    private int connectionsPerEventThread = 3;
+
+    public int resolveEventThreads(int connectionPoolSize) {
+        if (eventThreads > 0) {
+            return eventThreads;
+        }
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(threads, connectionPoolSize / Math.max(1, connectionsPerEventThread)));
+    }
+}
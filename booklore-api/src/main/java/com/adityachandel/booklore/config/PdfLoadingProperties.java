@@ -0,0 +1,20 @@
+package com.adityachandel.booklore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "app.pdf-loading")
+@Getter
+@Setter
+public class PdfLoadingProperties {
+    private DataSize mixedThreshold = DataSize.ofMegabytes(64);
+    private DataSize tempFileThreshold = DataSize.ofMegabytes(256);
+    private DataSize maxMainMemory = DataSize.ofMegabytes(16);
+    private DataSize memoryMappedThreshold = DataSize.ofMegabytes(32);
+    private boolean memoryMappedEnabled = true;
+    private String scratchDirectory;
+}
@@ -0,0 +1,18 @@
+package com.adityachandel.booklore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.upload")
+@Getter
+@Setter
+public class UploadProperties {
+    private DataSize maxFileSize = DataSize.ofGigabytes(4);
+    private Duration sessionTimeout = Duration.ofHours(24);
+}
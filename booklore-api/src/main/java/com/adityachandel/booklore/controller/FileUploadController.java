@@ -1,22 +1,29 @@
 package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BulkUploadReport;
+import com.adityachandel.booklore.model.dto.UploadSession;
+import com.adityachandel.booklore.model.dto.request.CreateUploadRequest;
+import com.adityachandel.booklore.service.BulkUploadService;
+import com.adityachandel.booklore.service.ChunkedUploadService;
 import com.adityachandel.booklore.service.FileUploadService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("/api/v1/files")
 public class FileUploadController {
 
     private final FileUploadService fileUploadService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final BulkUploadService bulkUploadService;
 
     @PreAuthorize("@securityUtil.canUpload()")
     @PostMapping(value = "/upload", consumes = "multipart/form-data")
@@ -26,4 +33,50 @@ public class FileUploadController {
         }
         return ResponseEntity.ok(fileUploadService.uploadFile(file, libraryId, pathId));
     }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @PostMapping(value = "/upload/bulk", consumes = "multipart/form-data")
+    public ResponseEntity<BulkUploadReport> uploadFiles(@RequestParam("files") List<MultipartFile> files, @RequestParam("libraryId") long libraryId, @RequestParam("pathId") long pathId) {
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("Uploaded files are missing.");
+        }
+        return ResponseEntity.ok(bulkUploadService.uploadFiles(files, libraryId, pathId));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @PostMapping(value = "/upload/archive", consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<BulkUploadReport> uploadArchive(@RequestParam("libraryId") long libraryId, @RequestParam("pathId") long pathId, InputStream body) {
+        return ResponseEntity.ok(bulkUploadService.uploadArchive(body, libraryId, pathId));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSession> createUpload(@RequestBody CreateUploadRequest request) {
+        return ResponseEntity.ok(chunkedUploadService.createUpload(request));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<UploadSession> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getUpload(uploadId));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @PutMapping(value = "/uploads/{uploadId}", consumes = "application/octet-stream")
+    public ResponseEntity<UploadSession> appendChunk(@PathVariable String uploadId, @RequestParam("offset") long offset, InputStream body) {
+        return ResponseEntity.ok(chunkedUploadService.appendChunk(uploadId, offset, body));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<Book> completeUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.completeUpload(uploadId));
+    }
+
+    @PreAuthorize("@securityUtil.canUpload()")
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        chunkedUploadService.abortUpload(uploadId);
+        return ResponseEntity.noContent().build();
+    }
 }
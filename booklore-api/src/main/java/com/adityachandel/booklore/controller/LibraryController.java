@@ -2,6 +2,7 @@ package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.model.dto.PendingRemoval;
 import com.adityachandel.booklore.model.dto.request.CreateLibraryRequest;
 import com.adityachandel.booklore.service.LibraryService;
 import lombok.AllArgsConstructor;
@@ -64,4 +65,22 @@ public class LibraryController {
         libraryService.rescanLibrary(libraryId);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{libraryId}/pending-removal")
+    public ResponseEntity<PendingRemoval> getPendingRemoval(@PathVariable long libraryId) {
+        return ResponseEntity.ok(libraryService.getPendingRemoval(libraryId));
+    }
+
+    @PostMapping("/{libraryId}/pending-removal/confirm")
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<Integer> confirmPendingRemoval(@PathVariable long libraryId) {
+        return ResponseEntity.ok(libraryService.confirmPendingRemoval(libraryId));
+    }
+
+    @DeleteMapping("/{libraryId}/pending-removal")
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<?> discardPendingRemoval(@PathVariable long libraryId) {
+        libraryService.discardPendingRemoval(libraryId);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.adityachandel.booklore.controller;
+
+import com.adityachandel.booklore.model.dto.QuarantinedFile;
+import com.adityachandel.booklore.service.LibraryProcessingService;
+import com.adityachandel.booklore.service.QuarantineService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/quarantine")
+@AllArgsConstructor
+public class QuarantineController {
+
+    private final QuarantineService quarantineService;
+    private final LibraryProcessingService libraryProcessingService;
+
+    @GetMapping
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<List<QuarantinedFile>> getQuarantinedFiles(@RequestParam(required = false) Long libraryId) {
+        return ResponseEntity.ok(quarantineService.getQuarantinedFiles(libraryId));
+    }
+
+    @PostMapping("/{quarantinedFileId}/retry")
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<Void> retryQuarantinedFile(@PathVariable long quarantinedFileId) throws IOException {
+        libraryProcessingService.retryQuarantinedFile(quarantinedFileId);
+        return ResponseEntity.noContent().build();
+    }
+}
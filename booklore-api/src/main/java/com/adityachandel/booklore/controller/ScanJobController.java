@@ -0,0 +1,34 @@
+package com.adityachandel.booklore.controller;
+
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.ScanJob;
+import com.adityachandel.booklore.service.ingestion.ScanJobTracker;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/scan-jobs")
+@AllArgsConstructor
+public class ScanJobController {
+
+    private final ScanJobTracker scanJobTracker;
+
+    @GetMapping
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<List<ScanJob>> getScanJobs() {
+        return ResponseEntity.ok(scanJobTracker.getJobs());
+    }
+
+    @GetMapping("/{scanJobId}")
+    @PreAuthorize("@securityUtil.canManipulateLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<ScanJob> getScanJob(@PathVariable long scanJobId) {
+        return ResponseEntity.ok(scanJobTracker.getJob(scanJobId).orElseThrow(() -> ApiError.SCAN_JOB_NOT_FOUND.createException(scanJobId)));
+    }
+}
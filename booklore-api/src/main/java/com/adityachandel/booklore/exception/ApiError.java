@@ -34,7 +34,14 @@ public enum ApiError {
     PASSWORD_INCORRECT(HttpStatus.BAD_REQUEST, "Incorrect current password"),
     PASSWORD_WEAK(HttpStatus.BAD_REQUEST, "New password is not strong enough. It must be at least 8 characters long, contain an uppercase letter, a lowercase letter, a number, and a special character."),
     PASSWORD_SAME_AS_CURRENT(HttpStatus.BAD_REQUEST, "New password cannot be the same as the current password"),
-    INVALID_CREDENTIALS(HttpStatus.BAD_REQUEST, "Invalid credentials");
+    INVALID_CREDENTIALS(HttpStatus.BAD_REQUEST, "Invalid credentials"),
+    QUARANTINED_FILE_NOT_FOUND(HttpStatus.NOT_FOUND, "Quarantined file not found with ID: %d"),
+    SCAN_JOB_NOT_FOUND(HttpStatus.NOT_FOUND, "Scan job not found with ID: %d"),
+    PENDING_REMOVAL_NOT_FOUND(HttpStatus.NOT_FOUND, "No pending book removal for library with ID: %d"),
+    UPLOAD_NOT_FOUND(HttpStatus.NOT_FOUND, "Upload not found with ID: %s"),
+    UPLOAD_OFFSET_MISMATCH(HttpStatus.CONFLICT, "Upload offset mismatch, expected offset: %d"),
+    UPLOAD_INCOMPLETE(HttpStatus.CONFLICT, "Upload is incomplete, received %d of %d bytes"),
+    UPLOAD_CHECKSUM_MISMATCH(HttpStatus.BAD_REQUEST, "Upload checksum mismatch, computed: %s");
 
     private final HttpStatus status;
     private final String message;
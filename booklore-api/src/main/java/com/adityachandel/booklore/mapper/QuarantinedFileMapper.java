@@ -0,0 +1,14 @@
+package com.adityachandel.booklore.mapper;
+
+import com.adityachandel.booklore.model.dto.QuarantinedFile;
+import com.adityachandel.booklore.model.entity.QuarantinedFileEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface QuarantinedFileMapper {
+
+    @Mapping(target = "libraryId", source = "library.id")
+    @Mapping(target = "libraryPathId", source = "libraryPath.id")
+    QuarantinedFile toQuarantinedFile(QuarantinedFileEntity quarantinedFileEntity);
+}
@@ -0,0 +1,19 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookFingerprint {
+    Long getId();
+
+    String getFileName();
+
+    String getFileSubPath();
+
+    Long getLibraryPathId();
+
+    Long getFileSize();
+
+    Long getFileLastModified();
+
+    String getFileKey();
+
+    Long getContentHash();
+}
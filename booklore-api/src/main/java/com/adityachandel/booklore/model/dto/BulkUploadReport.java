@@ -0,0 +1,16 @@
+package com.adityachandel.booklore.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+public class BulkUploadReport {
+    private int added;
+    private int skipped;
+    private int failed;
+    private long durationMillis;
+    private List<BulkUploadResult> files;
+}
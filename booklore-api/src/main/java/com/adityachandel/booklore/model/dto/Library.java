@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.model.dto;
 
+import com.adityachandel.booklore.model.enums.WatchMode;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,7 @@ public class Library {
     private Sort sort;
     private String icon;
     private boolean watch;
+    private WatchMode watchMode;
     private List<LibraryPath> paths;
 }
 
@@ -0,0 +1,7 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface NamedId {
+    Long getId();
+
+    String getName();
+}
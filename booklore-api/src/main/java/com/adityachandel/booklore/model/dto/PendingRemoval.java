@@ -0,0 +1,19 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PendingRemoval {
+    private Long libraryId;
+    private String libraryName;
+    private Set<Long> bookIds;
+    private int booksInScope;
+    private Instant detectedAt;
+}
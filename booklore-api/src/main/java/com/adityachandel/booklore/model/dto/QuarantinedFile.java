@@ -0,0 +1,24 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.QuarantineReason;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuarantinedFile {
+    private Long id;
+    private Long libraryId;
+    private Long libraryPathId;
+    private String fileName;
+    private String fileSubPath;
+    private Long fileSize;
+    private Long fileLastModified;
+    private QuarantineReason reason;
+    private String errorMessage;
+    private long elapsedMillis;
+    private int attempts;
+    private Instant quarantinedOn;
+}
@@ -0,0 +1,32 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.ScanJobStatus;
+import com.adityachandel.booklore.model.enums.ScanJobType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScanJob {
+    private Long id;
+    private ScanJobType type;
+    private ScanJobStatus status;
+    private Long libraryId;
+    private String libraryName;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int discovered;
+    private int processed;
+    private int skipped;
+    private int failed;
+    private long bytesRead;
+    private boolean discoveryFinished;
+    private double filesPerSecond;
+    private Long etaSeconds;
+    private long durationMillis;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadSession {
+    private String id;
+    private String fileName;
+    private long fileSize;
+    private long offset;
+    private String checksum;
+}
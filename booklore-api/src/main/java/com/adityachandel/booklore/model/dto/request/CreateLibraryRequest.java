@@ -1,6 +1,7 @@
 package com.adityachandel.booklore.model.dto.request;
 
 import com.adityachandel.booklore.model.dto.LibraryPath;
+import com.adityachandel.booklore.model.enums.WatchMode;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -20,4 +21,5 @@ public class CreateLibraryRequest {
     @NotEmpty
     private List<LibraryPath> paths;
     private boolean watch;
+    private WatchMode watchMode;
 }
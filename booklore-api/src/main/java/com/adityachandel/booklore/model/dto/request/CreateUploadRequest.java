@@ -0,0 +1,14 @@
+package com.adityachandel.booklore.model.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CreateUploadRequest {
+    private long libraryId;
+    private long pathId;
+    private String fileName;
+    private long fileSize;
+    private String checksum;
+}
@@ -16,4 +16,10 @@ public class LibraryFile {
     private String fileSubPath;
     private String fileName;
     private BookFileType bookFileType;
+    private Long fileSize;
+    private Long fileLastModified;
+    private String fileKey;
+    private Long contentHash;
+    private Long bookId;
+    private boolean skipCover;
 }
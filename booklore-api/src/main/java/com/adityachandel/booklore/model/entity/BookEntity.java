@@ -17,7 +17,8 @@ import java.util.List;
 public class BookEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "file_name", length = 1000)
@@ -26,6 +27,24 @@ public class BookEntity {
     @Column(name = "file_sub_path")
     private String fileSubPath;
 
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_last_modified")
+    private Long fileLastModified;
+
+    @Column(name = "file_key")
+    private String fileKey;
+
+    @Column(name = "content_hash")
+    private Long contentHash;
+
+    @Column(name = "metadata_hash")
+    private Long metadataHash;
+
+    @Column(name = "cover_hash")
+    private Long coverHash;
+
     @Column(name = "book_type")
     private BookFileType bookType;
 
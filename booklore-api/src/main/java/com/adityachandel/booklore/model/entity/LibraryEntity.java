@@ -2,6 +2,7 @@ package com.adityachandel.booklore.model.entity;
 
 import com.adityachandel.booklore.convertor.SortConverter;
 import com.adityachandel.booklore.model.dto.Sort;
+import com.adityachandel.booklore.model.enums.WatchMode;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -36,6 +37,11 @@ public class LibraryEntity {
 
     private boolean watch;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "watch_mode", nullable = false)
+    @Builder.Default
+    private WatchMode watchMode = WatchMode.NATIVE;
+
     private String icon;
 
 }
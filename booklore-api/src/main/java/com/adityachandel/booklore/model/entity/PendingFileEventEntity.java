@@ -0,0 +1,35 @@
+package com.adityachandel.booklore.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pending_file_event")
+public class PendingFileEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "library_id", nullable = false)
+    private Long libraryId;
+
+    @Column(name = "watched_folder", nullable = false)
+    private String watchedFolder;
+
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    @Column(name = "event_kind", nullable = false)
+    private String eventKind;
+
+    @Column(name = "queued_on", nullable = false)
+    private Instant queuedOn;
+}
@@ -0,0 +1,57 @@
+package com.adityachandel.booklore.model.entity;
+
+import com.adityachandel.booklore.model.enums.QuarantineReason;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "quarantined_file")
+public class QuarantinedFileEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "library_id", nullable = false)
+    private LibraryEntity library;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "library_path_id", nullable = false)
+    private LibraryPathEntity libraryPath;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "file_sub_path", nullable = false)
+    private String fileSubPath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_last_modified")
+    private Long fileLastModified;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false)
+    private QuarantineReason reason;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "quarantined_on", nullable = false)
+    private Instant quarantinedOn;
+}
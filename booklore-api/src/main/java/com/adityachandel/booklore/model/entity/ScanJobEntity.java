@@ -0,0 +1,66 @@
+package com.adityachandel.booklore.model.entity;
+
+import com.adityachandel.booklore.model.enums.ScanJobStatus;
+import com.adityachandel.booklore.model.enums.ScanJobType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "scan_job")
+public class ScanJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "library_id", nullable = false)
+    private Long libraryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ScanJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ScanJobStatus status;
+
+    @Column(name = "discovered", nullable = false)
+    private int discovered;
+
+    @Column(name = "processed", nullable = false)
+    private int processed;
+
+    @Column(name = "skipped", nullable = false)
+    private int skipped;
+
+    @Column(name = "failed", nullable = false)
+    private int failed;
+
+    @Column(name = "bytes_read", nullable = false)
+    private long bytesRead;
+
+    @Column(name = "checkpoint_library_path_id")
+    private Long checkpointLibraryPathId;
+
+    @Column(name = "checkpoint_path")
+    private String checkpointPath;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_on", nullable = false)
+    private Instant startedOn;
+
+    @Column(name = "updated_on")
+    private Instant updatedOn;
+
+    @Column(name = "finished_on")
+    private Instant finishedOn;
+}
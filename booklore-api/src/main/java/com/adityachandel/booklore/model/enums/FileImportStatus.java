@@ -0,0 +1,9 @@
+package com.adityachandel.booklore.model.enums;
+
+public enum FileImportStatus {
+    ADDED,
+    UPDATED,
+    SKIPPED,
+    REJECTED,
+    FAILED
+}
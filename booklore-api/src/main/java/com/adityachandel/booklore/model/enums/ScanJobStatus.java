@@ -0,0 +1,8 @@
+package com.adityachandel.booklore.model.enums;
+
+public enum ScanJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
@@ -0,0 +1,6 @@
+package com.adityachandel.booklore.model.enums;
+
+public enum ScanJobType {
+    LIBRARY_SCAN,
+    LIBRARY_RESCAN
+}
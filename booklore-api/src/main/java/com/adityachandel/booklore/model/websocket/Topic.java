@@ -7,6 +7,8 @@ public enum Topic {
     BOOK_ADD("/topic/book-add"),
     BOOKS_REMOVE("/topic/books-remove"),
     BOOK_METADATA_UPDATE("/topic/book-metadata-update"),
+    BOOKS_UPDATE("/topic/books-update"),
+    SCAN_PROGRESS("/topic/scan-progress"),
 
     LOG("/topic/log");
 
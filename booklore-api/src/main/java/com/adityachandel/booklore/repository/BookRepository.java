@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.repository;
 
+import com.adityachandel.booklore.model.dto.BookFingerprint;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.entity.LibraryPathEntity;
@@ -31,6 +32,41 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
 
     Optional<BookEntity> findBookByFileNameAndLibraryId(String fileName, long libraryId);
 
+    boolean existsByFileNameAndLibraryId(String fileName, long libraryId);
+
+    boolean existsByLibraryPathId(Long libraryPathId);
+
+    @Query("SELECT b.id AS id, b.fileName AS fileName, b.fileSubPath AS fileSubPath, b.libraryPath.id AS libraryPathId, " +
+            "b.fileSize AS fileSize, b.fileLastModified AS fileLastModified, b.fileKey AS fileKey, b.contentHash AS contentHash " +
+            "FROM BookEntity b WHERE b.library.id = :libraryId")
+    List<BookFingerprint> findFingerprintsByLibraryId(@Param("libraryId") long libraryId);
+
+    List<BookEntity> findByLibraryIdAndFileSizeAndContentHash(long libraryId, long fileSize, long contentHash);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.fileSize = :fileSize, b.fileLastModified = :fileLastModified, b.fileKey = :fileKey, b.contentHash = :contentHash WHERE b.id = :id")
+    void updateFingerprint(@Param("id") long id, @Param("fileSize") Long fileSize, @Param("fileLastModified") Long fileLastModified, @Param("fileKey") String fileKey, @Param("contentHash") Long contentHash);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.metadataHash = :metadataHash, b.coverHash = :coverHash WHERE b.id = :id")
+    void updateRegionHashes(@Param("id") long id, @Param("metadataHash") Long metadataHash, @Param("coverHash") Long coverHash);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.libraryPath = :libraryPath, b.fileSubPath = :fileSubPath, b.fileName = :fileName WHERE b.id = :id")
+    void updateLocation(@Param("id") long id, @Param("libraryPath") LibraryPathEntity libraryPath, @Param("fileSubPath") String fileSubPath, @Param("fileName") String fileName);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.fileSubPath = :toSubPath WHERE b.libraryPath.id = :libraryPathId AND b.fileSubPath = :fromSubPath")
+    int updateSubPath(@Param("libraryPathId") long libraryPathId, @Param("fromSubPath") String fromSubPath, @Param("toSubPath") String toSubPath);
+
+    @Query("SELECT b FROM BookEntity b JOIN b.metadata m WHERE m.thumbnail IS NULL " +
+            "AND (m.coverLocked IS NULL OR m.coverLocked = false) AND (m.allFieldsLocked IS NULL OR m.allFieldsLocked = false)")
+    List<BookEntity> findWithMissingCover();
+
+    @Query("SELECT b FROM BookEntity b JOIN b.metadata m WHERE b.library.id = :libraryId AND m.thumbnail IS NULL " +
+            "AND (m.coverLocked IS NULL OR m.coverLocked = false) AND (m.allFieldsLocked IS NULL OR m.allFieldsLocked = false)")
+    List<BookEntity> findWithMissingCoverByLibraryId(@Param("libraryId") long libraryId);
+
     @Query("SELECT b FROM BookEntity b JOIN b.shelves s WHERE s.id = :shelfId")
     List<BookEntity> findByShelfId(@Param("shelfId") Long shelfId);
 
@@ -1,14 +1,19 @@
 package com.adityachandel.booklore.repository;
 
+import com.adityachandel.booklore.model.dto.NamedId;
 import com.adityachandel.booklore.model.entity.CategoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
     Optional<CategoryEntity> findByName(String categoryName);
-}
 
+    @Query("SELECT c.id AS id, c.name AS name FROM CategoryEntity c")
+    List<NamedId> findAllNamedIds();
+}
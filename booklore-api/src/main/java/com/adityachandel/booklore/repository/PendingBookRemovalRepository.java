@@ -0,0 +1,20 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.PendingBookRemovalEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PendingBookRemovalRepository extends JpaRepository<PendingBookRemovalEntity, Long> {
+
+    List<PendingBookRemovalEntity> findByLibraryId(long libraryId);
+
+    @Modifying
+    @Query("DELETE FROM PendingBookRemovalEntity r WHERE r.libraryId = :libraryId")
+    void deleteByLibraryId(@Param("libraryId") long libraryId);
+}
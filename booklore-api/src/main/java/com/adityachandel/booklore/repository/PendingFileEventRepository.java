@@ -0,0 +1,13 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.PendingFileEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PendingFileEventRepository extends JpaRepository<PendingFileEventEntity, Long> {
+
+    List<PendingFileEventEntity> findAllByOrderByIdAsc();
+}
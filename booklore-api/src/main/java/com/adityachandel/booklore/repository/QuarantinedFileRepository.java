@@ -0,0 +1,23 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.QuarantinedFileEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface QuarantinedFileRepository extends JpaRepository<QuarantinedFileEntity, Long> {
+
+    List<QuarantinedFileEntity> findAllByOrderByQuarantinedOnDesc();
+
+    List<QuarantinedFileEntity> findByLibraryIdOrderByQuarantinedOnDesc(long libraryId);
+
+    @Query("SELECT q FROM QuarantinedFileEntity q JOIN FETCH q.library JOIN FETCH q.libraryPath WHERE q.id = :id")
+    Optional<QuarantinedFileEntity> findWithLocationById(@Param("id") long id);
+
+    Optional<QuarantinedFileEntity> findByFileNameAndLibraryId(String fileName, long libraryId);
+}
@@ -0,0 +1,35 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.ScanJobEntity;
+import com.adityachandel.booklore.model.enums.ScanJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ScanJobRepository extends JpaRepository<ScanJobEntity, Long> {
+
+    List<ScanJobEntity> findByStatusOrderByStartedOnAsc(ScanJobStatus status);
+
+    List<ScanJobEntity> findAllByOrderByStartedOnDesc(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ScanJobEntity j SET j.discovered = :discovered, j.processed = :processed, j.skipped = :skipped, j.failed = :failed, " +
+            "j.bytesRead = :bytesRead, j.checkpointLibraryPathId = :checkpointLibraryPathId, j.checkpointPath = :checkpointPath, j.updatedOn = :updatedOn " +
+            "WHERE j.id = :id")
+    void updateProgress(@Param("id") long id,
+                        @Param("discovered") int discovered,
+                        @Param("processed") int processed,
+                        @Param("skipped") int skipped,
+                        @Param("failed") int failed,
+                        @Param("bytesRead") long bytesRead,
+                        @Param("checkpointLibraryPathId") Long checkpointLibraryPathId,
+                        @Param("checkpointPath") String checkpointPath,
+                        @Param("updatedOn") Instant updatedOn);
+}
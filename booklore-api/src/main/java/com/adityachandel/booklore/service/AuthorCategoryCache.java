@@ -0,0 +1,115 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.model.dto.NamedId;
+import com.adityachandel.booklore.model.entity.AuthorEntity;
+import com.adityachandel.booklore.model.entity.CategoryEntity;
+import com.adityachandel.booklore.repository.AuthorRepository;
+import com.adityachandel.booklore.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class AuthorCategoryCache {
+
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate requiresNewTransaction;
+
+    private final Map<String, Long> authorIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> categoryIds = new ConcurrentHashMap<>();
+    private final Map<String, Object> creationLocks = new ConcurrentHashMap<>();
+
+    public AuthorCategoryCache(AuthorRepository authorRepository, CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        authorRepository.findAllNamedIds().forEach(author -> authorIds.put(author.getName(), author.getId()));
+        categoryRepository.findAllNamedIds().forEach(category -> categoryIds.put(category.getName(), category.getId()));
+        log.info("Author/category cache warmed with {} authors and {} categories", authorIds.size(), categoryIds.size());
+    }
+
+    public AuthorEntity getOrCreateAuthor(String name) {
+        Long id = resolveId(authorIds, "author:", name,
+                () -> authorRepository.saveAndFlush(AuthorEntity.builder().name(name).build()).getId(),
+                () -> authorRepository.findByName(name).map(AuthorEntity::getId).orElse(null));
+        return AuthorEntity.builder().id(id).name(name).bookMetadataEntityList(new ArrayList<>()).build();
+    }
+
+    public CategoryEntity getOrCreateCategory(String name) {
+        Long id = resolveId(categoryIds, "category:", name,
+                () -> categoryRepository.saveAndFlush(CategoryEntity.builder().name(name).build()).getId(),
+                () -> categoryRepository.findByName(name).map(CategoryEntity::getId).orElse(null));
+        return CategoryEntity.builder().id(id).name(name).bookMetadataEntityList(new HashSet<>()).build();
+    }
+
+    public List<AuthorEntity> getOrCreateAuthors(Iterable<String> names) {
+        return distinctById(names, this::getOrCreateAuthor, AuthorEntity::getId);
+    }
+
+    public List<CategoryEntity> getOrCreateCategories(Iterable<String> names) {
+        return distinctById(names, this::getOrCreateCategory, CategoryEntity::getId);
+    }
+
+    private <T> List<T> distinctById(Iterable<String> names, Function<String, T> resolver, Function<T, Long> idGetter) {
+        List<T> entities = new ArrayList<>();
+        HashSet<Long> seenIds = new HashSet<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            T entity = resolver.apply(name);
+            if (seenIds.add(idGetter.apply(entity))) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    private Long resolveId(Map<String, Long> ids, String lockPrefix, String name, Supplier<Long> creator, Supplier<Long> finder) {
+        Long id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (creationLocks.computeIfAbsent(lockPrefix + name, key -> new Object())) {
+            id = ids.get(name);
+            if (id == null) {
+                id = createOrFind(name, creator, finder);
+                ids.put(name, id);
+            }
+        }
+        creationLocks.remove(lockPrefix + name);
+        return id;
+    }
+
+    private Long createOrFind(String name, Supplier<Long> creator, Supplier<Long> finder) {
+        try {
+            return requiresNewTransaction.execute(status -> creator.get());
+        } catch (DataIntegrityViolationException e) {
+            Long id = requiresNewTransaction.execute(status -> finder.get());
+            if (id == null) {
+                throw e;
+            }
+            log.debug("'{}' was created concurrently, reusing id {}", name, id);
+            return id;
+        }
+    }
+}
@@ -1,26 +1,173 @@
 package com.adityachandel.booklore.service;
 
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.entity.*;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.*;
+import com.adityachandel.booklore.service.fileprocessor.FileProcessingUtils;
+import com.adityachandel.booklore.service.fileprocessor.ParsedBook;
+import com.adityachandel.booklore.util.FileUtils;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+@Slf4j
 @Service
 @AllArgsConstructor
 public class BookCreatorService {
 
-    private final AuthorRepository authorRepository;
-    private final CategoryRepository categoryRepository;
+    private final AuthorCategoryCache authorCategoryCache;
     private final BookRepository bookRepository;
     private final BookMetadataRepository bookMetadataRepository;
+    private final BookMapper bookMapper;
+    private final FileProcessingUtils fileProcessingUtils;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Book createBook(LibraryFile libraryFile, BookFileType bookFileType, ParsedBook parsedBook) {
+        BookEntity bookEntity = buildBook(libraryFile, bookFileType, parsedBook);
+        bookRepository.flush();
+        return bookMapper.toBook(bookEntity);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Book> createBooks(Map<LibraryFile, ParsedBook> parsedBooks) {
+        List<BookEntity> bookEntities = new ArrayList<>(parsedBooks.size());
+        parsedBooks.forEach((libraryFile, parsedBook) -> bookEntities.add(buildBook(libraryFile, libraryFile.getBookFileType(), parsedBook)));
+        bookRepository.flush();
+        return bookEntities.stream().map(bookMapper::toBook).toList();
+    }
+
+    private BookEntity buildBook(LibraryFile libraryFile, BookFileType bookFileType, ParsedBook parsedBook) {
+        BookEntity bookEntity = createShellBook(libraryFile, bookFileType);
+        if (parsedBook != null) {
+            setRegionHashes(parsedBook, bookEntity);
+            applyParsedBook(parsedBook, bookEntity);
+            saveConnections(bookEntity);
+            saveCover(parsedBook, bookEntity);
+        }
+        return bookEntity;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Book updateBook(long bookId, LibraryFile libraryFile, ParsedBook parsedBook) {
+        BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        bookEntity.setLibraryPath(libraryFile.getLibraryPathEntity());
+        bookEntity.setFileSubPath(libraryFile.getFileSubPath());
+        bookEntity.setFileName(libraryFile.getFileName());
+        setFingerprint(libraryFile, bookEntity);
+        if (parsedBook != null) {
+            setRegionHashes(parsedBook, bookEntity);
+        }
+        if (parsedBook != null && !isLocked(bookEntity.getMetadata().getAllFieldsLocked())) {
+            applyParsedBook(parsedBook, bookEntity);
+            saveConnections(bookEntity);
+            saveCover(parsedBook, bookEntity);
+        }
+        bookRepository.save(bookEntity);
+        bookRepository.flush();
+        return bookMapper.toBook(bookEntity);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Book> applyCover(long bookId, BufferedImage cover) {
+        Optional<BookEntity> bookEntity = bookRepository.findById(bookId);
+        if (bookEntity.isEmpty() || isLocked(bookEntity.get().getMetadata().getCoverLocked()) || isLocked(bookEntity.get().getMetadata().getAllFieldsLocked())) {
+            return Optional.empty();
+        }
+        saveCover(ParsedBook.builder().cover(cover).build(), bookEntity.get());
+        bookRepository.save(bookEntity.get());
+        return Optional.of(bookMapper.toBook(bookEntity.get()));
+    }
+
+    private void applyParsedBook(ParsedBook parsedBook, BookEntity bookEntity) {
+        BookMetadataEntity bookMetadata = bookEntity.getMetadata();
+        if (parsedBook.getTitle() != null && !isLocked(bookMetadata.getTitleLocked())) {
+            bookMetadata.setTitle(parsedBook.getTitle());
+        }
+        if (parsedBook.getDescription() != null && !isLocked(bookMetadata.getDescriptionLocked())) {
+            bookMetadata.setDescription(parsedBook.getDescription());
+        }
+        if (parsedBook.getPublisher() != null && !isLocked(bookMetadata.getPublisherLocked())) {
+            bookMetadata.setPublisher(parsedBook.getPublisher());
+        }
+        if (parsedBook.getPublishedDate() != null && !isLocked(bookMetadata.getPublishedDateLocked())) {
+            bookMetadata.setPublishedDate(parsedBook.getPublishedDate());
+        }
+        if (parsedBook.getIsbn13() != null && !isLocked(bookMetadata.getIsbn13Locked())) {
+            bookMetadata.setIsbn13(parsedBook.getIsbn13());
+        }
+        if (parsedBook.getIsbn10() != null && !isLocked(bookMetadata.getIsbn10Locked())) {
+            bookMetadata.setIsbn10(parsedBook.getIsbn10());
+        }
+        if (parsedBook.getLanguage() != null && !isLocked(bookMetadata.getLanguageLocked())) {
+            bookMetadata.setLanguage(parsedBook.getLanguage());
+        }
+        if (parsedBook.getAuthors() != null && !isLocked(bookMetadata.getAuthorsLocked())) {
+            bookMetadata.setAuthors(new ArrayList<>());
+            addAuthorsToBook(parsedBook.getAuthors(), bookEntity);
+        }
+        if (parsedBook.getCategories() != null && !isLocked(bookMetadata.getCategoriesLocked())) {
+            bookMetadata.setCategories(new ArrayList<>());
+            addCategoriesToBook(parsedBook.getCategories(), bookEntity);
+        }
+    }
+
+    private boolean isLocked(Boolean lock) {
+        return Boolean.TRUE.equals(lock);
+    }
+
+    private void setFingerprint(LibraryFile libraryFile, BookEntity bookEntity) {
+        try {
+            Path path = Path.of(FileUtils.getFileFullPath(libraryFile));
+            if (libraryFile.getFileSize() == null) {
+                FileUtils.setFileAttributes(libraryFile, Files.readAttributes(path, BasicFileAttributes.class));
+            }
+            if (libraryFile.getContentHash() == null) {
+                libraryFile.setContentHash(FileUtils.computeContentHash(path));
+            }
+        } catch (IOException e) {
+            log.warn("Unable to fingerprint file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+        }
+        bookEntity.setFileSize(libraryFile.getFileSize());
+        bookEntity.setFileLastModified(libraryFile.getFileLastModified());
+        bookEntity.setFileKey(libraryFile.getFileKey());
+        bookEntity.setContentHash(libraryFile.getContentHash());
+    }
+
+    private void setRegionHashes(ParsedBook parsedBook, BookEntity bookEntity) {
+        bookEntity.setMetadataHash(parsedBook.getMetadataHash());
+        bookEntity.setCoverHash(parsedBook.getCoverHash());
+    }
+
+    private void saveCover(ParsedBook parsedBook, BookEntity bookEntity) {
+        if (parsedBook.getCover() == null || isLocked(bookEntity.getMetadata().getCoverLocked())) {
+            return;
+        }
+        try {
+            if (fileProcessingUtils.saveThumbnail(parsedBook.getCover(), bookEntity.getId())) {
+                fileProcessingUtils.setBookCoverPath(bookEntity.getId(), bookEntity.getMetadata());
+            }
+        } catch (IOException e) {
+            log.error("Error while saving cover for book {}, error: {}", bookEntity.getId(), e.getMessage());
+        }
+    }
 
     public BookEntity createShellBook(LibraryFile libraryFile, BookFileType bookFileType) {
         BookEntity bookEntity = BookEntity.builder()
@@ -31,55 +178,37 @@ public class BookCreatorService {
                 .bookType(bookFileType)
                 .addedOn(Instant.now())
                 .build();
+        setFingerprint(libraryFile, bookEntity);
         BookMetadataEntity bookMetadataEntity = BookMetadataEntity.builder().build();
         bookEntity.setMetadata(bookMetadataEntity);
-        bookEntity = bookRepository.saveAndFlush(bookEntity);
-
-        return bookEntity;
+        return bookRepository.save(bookEntity);
     }
 
     public void addCategoriesToBook(List<String> categories, BookEntity bookEntity) {
-        for (String category : categories) {
-            Optional<CategoryEntity> catOpt = categoryRepository.findByName(category);
-            CategoryEntity categoryEntity;
-            if (catOpt.isPresent()) {
-                categoryEntity = catOpt.get();
-            } else {
-                categoryEntity = CategoryEntity.builder()
-                        .name(category)
-                        .build();
-                categoryEntity = categoryRepository.save(categoryEntity);
-            }
-            if (bookEntity.getMetadata().getCategories() == null) {
-                bookEntity.getMetadata().setCategories(new ArrayList<>());
+        if (bookEntity.getMetadata().getCategories() == null) {
+            bookEntity.getMetadata().setCategories(new ArrayList<>());
+        }
+        List<CategoryEntity> bookCategories = bookEntity.getMetadata().getCategories();
+        for (CategoryEntity categoryEntity : authorCategoryCache.getOrCreateCategories(categories)) {
+            if (bookCategories.stream().noneMatch(c -> c.getId().equals(categoryEntity.getId()))) {
+                bookCategories.add(categoryEntity);
             }
-            bookEntity.getMetadata().getCategories().add(categoryEntity);
         }
     }
 
     public void addAuthorsToBook(Set<String> authors, BookEntity bookEntity) {
-        for (String authorStr : authors) {
-            Optional<AuthorEntity> authorOptional = authorRepository.findByName(authorStr);
-            AuthorEntity authorEntity;
-            if (authorOptional.isPresent()) {
-                authorEntity = authorOptional.get();
-            } else {
-                authorEntity = AuthorEntity.builder()
-                        .name(authorStr)
-                        .build();
-                authorEntity = authorRepository.save(authorEntity);
-            }
-            if (bookEntity.getMetadata().getAuthors() == null) {
-                bookEntity.getMetadata().setAuthors(new ArrayList<>());
+        if (bookEntity.getMetadata().getAuthors() == null) {
+            bookEntity.getMetadata().setAuthors(new ArrayList<>());
+        }
+        List<AuthorEntity> bookAuthors = bookEntity.getMetadata().getAuthors();
+        for (AuthorEntity authorEntity : authorCategoryCache.getOrCreateAuthors(authors)) {
+            if (bookAuthors.stream().noneMatch(a -> a.getId().equals(authorEntity.getId()))) {
+                bookAuthors.add(authorEntity);
             }
-            bookEntity.getMetadata().getAuthors().add(authorEntity);
         }
     }
 
     public void saveConnections(BookEntity bookEntity) {
-        if (bookEntity.getMetadata().getAuthors() != null && !bookEntity.getMetadata().getAuthors().isEmpty()) {
-            authorRepository.saveAll(bookEntity.getMetadata().getAuthors());
-        }
         bookRepository.save(bookEntity);
         bookMetadataRepository.save(bookEntity.getMetadata());
     }
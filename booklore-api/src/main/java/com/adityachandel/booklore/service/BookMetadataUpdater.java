@@ -16,7 +16,9 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,11 +27,10 @@ import java.util.stream.Collectors;
 public class BookMetadataUpdater {
 
     private final BookRepository bookRepository;
-    private final AuthorRepository authorRepository;
     private final BookMetadataRepository bookMetadataRepository;
-    private final CategoryRepository categoryRepository;
     private final BookAwardRepository awardRepository;
     private final FileService fileService;
+    private final AuthorCategoryCache authorCategoryCache;
     private final BookAwardRepository bookAwardRepository;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -130,35 +131,22 @@ public class BookMetadataUpdater {
         }
 
         if ((metadata.getAuthorsLocked() == null || !metadata.getAuthorsLocked()) && newMetadata.getAuthors() != null && !newMetadata.getAuthors().isEmpty()) {
-            metadata.setAuthors(newMetadata.getAuthors()
-                    .stream()
-                    .filter(a -> a != null && !a.isBlank())
-                    .map(authorName -> authorRepository.findByName(authorName)
-                            .orElseGet(() -> authorRepository.save(AuthorEntity.builder().name(authorName).build())))
-                    .collect(Collectors.toList()));
+            metadata.setAuthors(authorCategoryCache.getOrCreateAuthors(newMetadata.getAuthors()));
         }
 
         if (mergeCategories) {
             if ((metadata.getCategoriesLocked() == null || !metadata.getCategoriesLocked()) && newMetadata.getCategories() != null) {
-                HashSet<CategoryEntity> existingCategories = new HashSet<>(metadata.getCategories());
-                newMetadata.getCategories()
+                List<CategoryEntity> existingCategories = new ArrayList<>(metadata.getCategories());
+                Set<Long> existingCategoryIds = existingCategories.stream().map(CategoryEntity::getId).collect(Collectors.toSet());
+                authorCategoryCache.getOrCreateCategories(newMetadata.getCategories())
                         .stream()
-                        .filter(c -> c != null && !c.isBlank())
-                        .forEach(categoryName -> {
-                            CategoryEntity categoryEntity = categoryRepository.findByName(categoryName)
-                                    .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(categoryName).build()));
-                            existingCategories.add(categoryEntity);
-                        });
-                metadata.setCategories(new ArrayList<>(existingCategories));
+                        .filter(categoryEntity -> existingCategoryIds.add(categoryEntity.getId()))
+                        .forEach(existingCategories::add);
+                metadata.setCategories(existingCategories);
             }
         } else {
             if ((metadata.getCategoriesLocked() == null || !metadata.getCategoriesLocked()) && newMetadata.getCategories() != null && !newMetadata.getCategories().isEmpty()) {
-                metadata.setCategories(newMetadata.getCategories()
-                        .stream()
-                        .filter(c -> c != null && !c.isBlank())
-                        .map(categoryName -> categoryRepository.findByName(categoryName)
-                                .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(categoryName).build())))
-                        .collect(Collectors.toList()));
+                metadata.setCategories(authorCategoryCache.getOrCreateCategories(newMetadata.getCategories()));
             }
         }
 
@@ -173,12 +161,6 @@ public class BookMetadataUpdater {
             metadata.setThumbnail(thumbnailPath);
         }
 
-        if (!metadata.getAuthors().isEmpty()) {
-            authorRepository.saveAll(metadata.getAuthors());
-        }
-        if (!metadata.getCategories().isEmpty()) {
-            categoryRepository.saveAll(metadata.getCategories());
-        }
         if (!metadata.getAwards().isEmpty()) {
             awardRepository.saveAll(metadata.getAwards());
         }
@@ -0,0 +1,181 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.UploadProperties;
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.BulkUploadReport;
+import com.adityachandel.booklore.model.dto.BulkUploadResult;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.FileImportStatus;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.service.ingestion.InFlightFileRegistry;
+import com.adityachandel.booklore.service.ingestion.IngestionStats;
+import com.adityachandel.booklore.service.ingestion.LibraryIngestionPipeline;
+import com.adityachandel.booklore.util.FileUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUploadService {
+
+    private static final String TEMP_FILE_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadProperties uploadProperties;
+    private final FileUploadService fileUploadService;
+    private final LibraryIngestionPipeline ingestionPipeline;
+    private final NotificationService notificationService;
+    private final InFlightFileRegistry inFlightFileRegistry;
+
+    public BulkUploadReport uploadFiles(List<MultipartFile> files, long libraryId, long pathId) {
+        LibraryEntity libraryEntity = fileUploadService.findLibrary(libraryId);
+        LibraryPathEntity libraryPathEntity = fileUploadService.findLibraryPath(libraryEntity, pathId);
+        List<LibraryFile> storedFiles = new ArrayList<>();
+        List<BulkUploadResult> rejected = new ArrayList<>();
+        for (MultipartFile file : files) {
+            String fileName = file.getOriginalFilename() == null ? "" : Path.of(file.getOriginalFilename()).getFileName().toString();
+            try (InputStream inputStream = file.getInputStream()) {
+                store(inputStream, fileName, libraryEntity, libraryPathEntity, storedFiles, rejected);
+            } catch (IOException e) {
+                rejected.add(new BulkUploadResult(fileName, FileImportStatus.REJECTED, null, e.getMessage()));
+            }
+        }
+        return ingest(libraryEntity, storedFiles, rejected);
+    }
+
+    public BulkUploadReport uploadArchive(InputStream archive, long libraryId, long pathId) {
+        LibraryEntity libraryEntity = fileUploadService.findLibrary(libraryId);
+        LibraryPathEntity libraryPathEntity = fileUploadService.findLibraryPath(libraryEntity, pathId);
+        List<LibraryFile> storedFiles = new ArrayList<>();
+        List<BulkUploadResult> rejected = new ArrayList<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(archive, BUFFER_SIZE))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    store(zipInputStream, entry.getName(), libraryEntity, libraryPathEntity, storedFiles, rejected);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading archive uploaded to library {}, error: {}", libraryEntity.getName(), e.getMessage());
+            if (storedFiles.isEmpty()) {
+                throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+            }
+            rejected.add(new BulkUploadResult("archive", FileImportStatus.REJECTED, null, "Archive truncated: " + e.getMessage()));
+        }
+        return ingest(libraryEntity, storedFiles, rejected);
+    }
+
+    private void store(InputStream inputStream, String relativeName, LibraryEntity libraryEntity, LibraryPathEntity libraryPathEntity,
+                       List<LibraryFile> storedFiles, List<BulkUploadResult> rejected) {
+        Path root = Path.of(libraryPathEntity.getPath()).toAbsolutePath().normalize();
+        Path target = root.resolve(relativeName).normalize();
+        String fileName = target.getFileName() == null ? "" : target.getFileName().toString();
+        BookFileType fileType = fileName.startsWith(".") ? null : FileUploadService.fileTypeOf(fileName);
+        if (!target.startsWith(root) || target.equals(root)) {
+            rejected.add(new BulkUploadResult(relativeName, FileImportStatus.REJECTED, null, "Invalid file path"));
+            return;
+        }
+        if (fileType == null) {
+            rejected.add(new BulkUploadResult(relativeName, FileImportStatus.REJECTED, null, "Unsupported file type"));
+            return;
+        }
+        if (Files.exists(target) || !inFlightFileRegistry.tryClaim(target)) {
+            rejected.add(new BulkUploadResult(relativeName, FileImportStatus.REJECTED, null, "File already exists"));
+            return;
+        }
+        Path tempFile = target.resolveSibling("." + fileName + TEMP_FILE_SUFFIX);
+        try {
+            Files.createDirectories(target.getParent());
+            copyBounded(inputStream, tempFile);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            LibraryFile libraryFile = LibraryFile.builder()
+                    .libraryEntity(libraryEntity)
+                    .libraryPathEntity(libraryPathEntity)
+                    .fileSubPath(FileUtils.getRelativeSubPath(libraryPathEntity.getPath(), target))
+                    .fileName(fileName)
+                    .bookFileType(fileType)
+                    .build();
+            FileUtils.setFileAttributes(libraryFile, Files.readAttributes(target, BasicFileAttributes.class));
+            storedFiles.add(libraryFile);
+        } catch (IOException | RuntimeException e) {
+            inFlightFileRegistry.release(target);
+            deleteQuietly(tempFile);
+            rejected.add(new BulkUploadResult(relativeName, FileImportStatus.REJECTED, null, e.getMessage()));
+        }
+    }
+
+    private void copyBounded(InputStream inputStream, Path tempFile) throws IOException {
+        long maxFileSize = uploadProperties.getMaxFileSize().toBytes();
+        long written = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (OutputStream outputStream = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                written += read;
+                if (written > maxFileSize) {
+                    throw ApiError.FILE_TOO_LARGE.createException();
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private BulkUploadReport ingest(LibraryEntity libraryEntity, List<LibraryFile> storedFiles, List<BulkUploadResult> rejected) {
+        Queue<BulkUploadResult> results = new ConcurrentLinkedQueue<>(rejected);
+        IngestionStats stats = new IngestionStats((libraryFile, status, bookId, message) ->
+                results.add(new BulkUploadResult(relativeName(libraryFile), status, bookId, message)));
+        try {
+            ingestionPipeline.ingest(sink -> storedFiles.forEach(sink), stats, storedFiles.stream().map(BulkUploadService::pathOf).toList());
+        } catch (IOException e) {
+            throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+        }
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Bulk upload to " + libraryEntity.getName() + " finished, " + stats));
+        List<BulkUploadResult> files = results.stream().sorted(Comparator.comparing(BulkUploadResult::getFileName)).toList();
+        return BulkUploadReport.builder()
+                .added((int) files.stream().filter(result -> result.getStatus() == FileImportStatus.ADDED).count())
+                .skipped(stats.getSkipped())
+                .failed((int) files.stream().filter(result -> result.getStatus() == FileImportStatus.FAILED || result.getStatus() == FileImportStatus.REJECTED).count())
+                .durationMillis(stats.getElapsed().toMillis())
+                .files(files)
+                .build();
+    }
+
+    private static Path pathOf(LibraryFile libraryFile) {
+        return Path.of(FileUtils.getFileFullPath(libraryFile));
+    }
+
+    private static String relativeName(LibraryFile libraryFile) {
+        String subPath = libraryFile.getFileSubPath();
+        return subPath == null || subPath.isEmpty() ? libraryFile.getFileName() : subPath + "/" + libraryFile.getFileName();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete {}, error: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.UploadProperties;
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.UploadSession;
+import com.adityachandel.booklore.model.dto.request.CreateUploadRequest;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.service.ingestion.InFlightFileRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final String TEMP_FILE_PREFIX = ".booklore-upload-";
+    private static final String TEMP_FILE_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadProperties uploadProperties;
+    private final FileUploadService fileUploadService;
+    private final InFlightFileRegistry inFlightFileRegistry;
+
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+    private ScheduledExecutorService cleanupExecutor;
+
+    @PostConstruct
+    public void start() {
+        cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMinutes = Math.max(1, uploadProperties.getSessionTimeout().toMinutes() / 4);
+        cleanupExecutor.scheduleWithFixedDelay(this::expireIdleUploads, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    public UploadSession createUpload(CreateUploadRequest request) {
+        String fileName = request.getFileName();
+        if (fileName == null || fileName.isBlank() || !Path.of(fileName).getFileName().toString().equals(fileName)) {
+            throw ApiError.INVALID_FILE_FORMAT.createException();
+        }
+        BookFileType fileType = FileUploadService.fileTypeOf(fileName);
+        if (fileType == null) {
+            throw ApiError.INVALID_FILE_FORMAT.createException();
+        }
+        if (request.getFileSize() <= 0 || request.getFileSize() > uploadProperties.getMaxFileSize().toBytes()) {
+            throw ApiError.FILE_TOO_LARGE.createException();
+        }
+        LibraryEntity libraryEntity = fileUploadService.findLibrary(request.getLibraryId());
+        LibraryPathEntity libraryPathEntity = fileUploadService.findLibraryPath(libraryEntity, request.getPathId());
+        Path directory = Path.of(libraryPathEntity.getPath());
+        Path targetFile = directory.resolve(fileName);
+        if (Files.exists(targetFile)) {
+            throw ApiError.FILE_ALREADY_EXISTS.createException();
+        }
+        deleteOrphanedTempFiles(directory);
+
+        String uploadId = UUID.randomUUID().toString();
+        Path tempFile = directory.resolve(TEMP_FILE_PREFIX + uploadId + TEMP_FILE_SUFFIX);
+        try {
+            Files.createFile(tempFile);
+        } catch (IOException e) {
+            log.error("Unable to create upload file {}, error: {}", tempFile, e.getMessage());
+            throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+        }
+        ChunkedUpload upload = new ChunkedUpload(uploadId, libraryEntity.getId(), libraryPathEntity.getId(), fileType,
+                request.getFileSize(), request.getChecksum(), tempFile, targetFile);
+        uploads.put(uploadId, upload);
+        log.info("Started chunked upload {} for {} ({} bytes)", uploadId, targetFile, request.getFileSize());
+        return upload.toUploadSession();
+    }
+
+    public UploadSession getUpload(String uploadId) {
+        ChunkedUpload upload = findUpload(uploadId);
+        synchronized (upload) {
+            return upload.toUploadSession();
+        }
+    }
+
+    public UploadSession appendChunk(String uploadId, long offset, InputStream body) {
+        ChunkedUpload upload = findUpload(uploadId);
+        synchronized (upload) {
+            if (offset != upload.offset) {
+                throw ApiError.UPLOAD_OFFSET_MISMATCH.createException(upload.offset);
+            }
+            try (FileChannel channel = FileChannel.open(upload.tempFile, StandardOpenOption.WRITE)) {
+                channel.position(upload.offset);
+                try {
+                    writeChunk(upload, body, channel);
+                } catch (IOException e) {
+                    channel.truncate(upload.offset);
+                    log.warn("Chunk for upload {} interrupted at offset {}, error: {}", uploadId, upload.offset, e.getMessage());
+                }
+            } catch (IOException e) {
+                log.error("Error writing upload {}, error: {}", uploadId, e.getMessage());
+                throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+            }
+            upload.lastActivity = Instant.now();
+            return upload.toUploadSession();
+        }
+    }
+
+    public Book completeUpload(String uploadId) {
+        ChunkedUpload upload = findUpload(uploadId);
+        synchronized (upload) {
+            if (upload.offset != upload.fileSize) {
+                throw ApiError.UPLOAD_INCOMPLETE.createException(upload.offset, upload.fileSize);
+            }
+            if (upload.checksum == null) {
+                upload.checksum = HexFormat.of().formatHex(upload.digest.digest());
+            }
+            if (upload.expectedChecksum != null && !upload.expectedChecksum.equalsIgnoreCase(upload.checksum)) {
+                discard(upload);
+                throw ApiError.UPLOAD_CHECKSUM_MISMATCH.createException(upload.checksum);
+            }
+            if (!inFlightFileRegistry.tryClaim(upload.targetFile)) {
+                throw ApiError.FILE_ALREADY_EXISTS.createException();
+            }
+            try {
+                publish(upload);
+            } catch (FileAlreadyExistsException e) {
+                inFlightFileRegistry.release(upload.targetFile);
+                discard(upload);
+                throw ApiError.FILE_ALREADY_EXISTS.createException();
+            } catch (IOException e) {
+                inFlightFileRegistry.release(upload.targetFile);
+                log.error("Unable to move upload {} to {}, error: {}", uploadId, upload.targetFile, e.getMessage());
+                throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+            }
+            uploads.remove(uploadId);
+            log.info("Chunked upload {} completed: {}", uploadId, upload.targetFile);
+        }
+        return fileUploadService.importClaimedFile(upload.libraryId, upload.pathId, upload.targetFile, upload.fileType);
+    }
+
+    private void publish(ChunkedUpload upload) throws IOException {
+        try {
+            Files.createLink(upload.targetFile, upload.tempFile);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.move(upload.tempFile, upload.targetFile);
+            return;
+        }
+        Files.delete(upload.tempFile);
+    }
+
+    public void abortUpload(String uploadId) {
+        ChunkedUpload upload = findUpload(uploadId);
+        synchronized (upload) {
+            discard(upload);
+        }
+        log.info("Chunked upload {} aborted", uploadId);
+    }
+
+    private void writeChunk(ChunkedUpload upload, InputStream body, FileChannel channel) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (upload.offset + read > upload.fileSize) {
+                channel.truncate(upload.offset);
+                throw ApiError.FILE_TOO_LARGE.createException();
+            }
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            upload.digest.update(buffer, 0, read);
+            upload.offset += read;
+        }
+    }
+
+    private ChunkedUpload findUpload(String uploadId) {
+        ChunkedUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw ApiError.UPLOAD_NOT_FOUND.createException(uploadId);
+        }
+        return upload;
+    }
+
+    private void discard(ChunkedUpload upload) {
+        uploads.remove(upload.id);
+        try {
+            Files.deleteIfExists(upload.tempFile);
+        } catch (IOException e) {
+            log.warn("Unable to delete upload file {}, error: {}", upload.tempFile, e.getMessage());
+        }
+    }
+
+    private void expireIdleUploads() {
+        Instant cutoff = Instant.now().minus(uploadProperties.getSessionTimeout());
+        uploads.values().stream()
+                .filter(upload -> upload.lastActivity.isBefore(cutoff))
+                .forEach(upload -> {
+                    synchronized (upload) {
+                        discard(upload);
+                    }
+                    log.info("Chunked upload {} expired after inactivity", upload.id);
+                });
+    }
+
+    private void deleteOrphanedTempFiles(Path directory) {
+        Instant cutoff = Instant.now().minus(uploadProperties.getSessionTimeout());
+        try (DirectoryStream<Path> tempFiles = Files.newDirectoryStream(directory, TEMP_FILE_PREFIX + "*" + TEMP_FILE_SUFFIX)) {
+            for (Path tempFile : tempFiles) {
+                String uploadId = tempFile.getFileName().toString().substring(TEMP_FILE_PREFIX.length()).replace(TEMP_FILE_SUFFIX, "");
+                if (!uploads.containsKey(uploadId) && Files.getLastModifiedTime(tempFile).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to clean up upload files in {}, error: {}", directory, e.getMessage());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ChunkedUpload {
+        private final String id;
+        private final long libraryId;
+        private final long pathId;
+        private final BookFileType fileType;
+        private final long fileSize;
+        private final String expectedChecksum;
+        private final Path tempFile;
+        private final Path targetFile;
+        private final MessageDigest digest = newDigest();
+        private long offset;
+        private String checksum;
+        private volatile Instant lastActivity = Instant.now();
+
+        private ChunkedUpload(String id, long libraryId, long pathId, BookFileType fileType, long fileSize, String expectedChecksum, Path tempFile, Path targetFile) {
+            this.id = id;
+            this.libraryId = libraryId;
+            this.pathId = pathId;
+            this.fileType = fileType;
+            this.fileSize = fileSize;
+            this.expectedChecksum = expectedChecksum;
+            this.tempFile = tempFile;
+            this.targetFile = targetFile;
+        }
+
+        private UploadSession toUploadSession() {
+            return UploadSession.builder()
+                    .id(id)
+                    .fileName(targetFile.getFileName().toString())
+                    .fileSize(fileSize)
+                    .offset(offset)
+                    .checksum(checksum)
+                    .build();
+        }
+    }
+}
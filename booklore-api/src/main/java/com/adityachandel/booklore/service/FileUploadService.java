@@ -10,6 +10,7 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.fileprocessor.EpubProcessor;
 import com.adityachandel.booklore.service.fileprocessor.PdfProcessor;
+import com.adityachandel.booklore.service.ingestion.InFlightFileRegistry;
 import com.adityachandel.booklore.util.FileUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,38 +36,71 @@ public class FileUploadService {
     private final PdfProcessor pdfProcessor;
     private final EpubProcessor epubProcessor;
     private final NotificationService notificationService;
+    private final InFlightFileRegistry inFlightFileRegistry;
 
     public Book uploadFile(MultipartFile file, long libraryId, long pathId) {
         validateFile(file);
 
-        LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
-
-        LibraryPathEntity libraryPathEntity = libraryEntity.getLibraryPaths()
-                .stream()
-                .filter(p -> p.getId() == pathId)
-                .findFirst()
-                .orElseThrow(() -> ApiError.INVALID_LIBRARY_PATH.createException(libraryId));
+        LibraryEntity libraryEntity = findLibrary(libraryId);
+        LibraryPathEntity libraryPathEntity = findLibraryPath(libraryEntity, pathId);
 
         Path storagePath = Paths.get(libraryPathEntity.getPath(), Objects.requireNonNull(file.getOriginalFilename()));
         File storageFile = storagePath.toFile();
 
-        if (storageFile.exists()) {
+        if (storageFile.exists() || !inFlightFileRegistry.tryClaim(storagePath)) {
             throw ApiError.FILE_ALREADY_EXISTS.createException();
         }
 
         try {
-            file.transferTo(storageFile);
-            log.info("File uploaded successfully: {}", storageFile.getAbsolutePath());
-            Book book = processFile(file, libraryEntity, libraryPathEntity, storageFile);
-            notificationService.sendMessage(Topic.BOOK_ADD, book);
-            log.info("Book processed successfully: {}", book.getMetadata().getTitle());
-            return book;
-        } catch (IOException e) {
-            log.error("Error saving file: {}", e.getMessage());
-            throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+            try {
+                file.transferTo(storageFile);
+                log.info("File uploaded successfully: {}", storageFile.getAbsolutePath());
+            } catch (IOException e) {
+                log.error("Error saving file: {}", e.getMessage());
+                throw ApiError.FILE_READ_ERROR.createException(e.getMessage());
+            }
+            BookFileType fileType = determineFileType(Objects.requireNonNull(file.getContentType()));
+            if (fileType == null) {
+                throw ApiError.INVALID_FILE_FORMAT.createException();
+            }
+            return processFile(fileType, libraryEntity, libraryPathEntity, storagePath);
+        } finally {
+            inFlightFileRegistry.release(storagePath);
+        }
+    }
+
+    public Book importClaimedFile(long libraryId, long pathId, Path storagePath, BookFileType fileType) {
+        try {
+            LibraryEntity libraryEntity = findLibrary(libraryId);
+            return processFile(fileType, libraryEntity, findLibraryPath(libraryEntity, pathId), storagePath);
+        } finally {
+            inFlightFileRegistry.release(storagePath);
         }
     }
 
+    public LibraryEntity findLibrary(long libraryId) {
+        return libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+    }
+
+    public LibraryPathEntity findLibraryPath(LibraryEntity libraryEntity, long pathId) {
+        return libraryEntity.getLibraryPaths()
+                .stream()
+                .filter(p -> p.getId() == pathId)
+                .findFirst()
+                .orElseThrow(() -> ApiError.INVALID_LIBRARY_PATH.createException(libraryEntity.getId()));
+    }
+
+    public static BookFileType fileTypeOf(String fileName) {
+        String lowerCaseFileName = fileName.toLowerCase();
+        if (lowerCaseFileName.endsWith(".pdf")) {
+            return BookFileType.PDF;
+        }
+        if (lowerCaseFileName.endsWith(".epub")) {
+            return BookFileType.EPUB;
+        }
+        return null;
+    }
+
     private void validateFile(MultipartFile file) {
         String fileType = file.getContentType();
         if ((!PDF_MIME_TYPE.equals(fileType) && !EPUB_MIME_TYPE.equals(fileType))) {
@@ -77,34 +111,24 @@ public class FileUploadService {
         }
     }
 
-    private Book processFile(MultipartFile file, LibraryEntity libraryEntity, LibraryPathEntity libraryPathEntity, File storageFile) {
-        BookFileType fileType = determineFileType(Objects.requireNonNull(file.getContentType()));
-        if (fileType == null) {
-            throw ApiError.INVALID_FILE_FORMAT.createException();
-        }
-
-        String subPath = FileUtils.getRelativeSubPath(libraryPathEntity.getPath(), storageFile.toPath());
+    private Book processFile(BookFileType fileType, LibraryEntity libraryEntity, LibraryPathEntity libraryPathEntity, Path storagePath) {
+        String subPath = FileUtils.getRelativeSubPath(libraryPathEntity.getPath(), storagePath);
 
         LibraryFile libraryFile = LibraryFile.builder()
                 .libraryEntity(libraryEntity)
                 .libraryPathEntity(libraryPathEntity)
                 .fileSubPath(subPath)
                 .bookFileType(fileType)
-                .fileName(file.getOriginalFilename())
+                .fileName(storagePath.getFileName().toString())
                 .build();
 
-        switch (fileType) {
-            case PDF -> {
-                return pdfProcessor.processFile(libraryFile, false);
-            }
-            case EPUB -> {
-                return epubProcessor.processFile(libraryFile, false);
-            }
-            default -> {
-                log.warn("Unsupported file type for processing: {}", fileType);
-                throw ApiError.INVALID_FILE_FORMAT.createException();
-            }
-        }
+        Book book = switch (fileType) {
+            case PDF -> pdfProcessor.processFile(libraryFile, false);
+            case EPUB -> epubProcessor.processFile(libraryFile, false);
+        };
+        notificationService.sendMessage(Topic.BOOK_ADD, book);
+        log.info("Book processed successfully: {}", book.getMetadata().getTitle());
+        return book;
     }
 
     private BookFileType determineFileType(String fileType) {
@@ -1,30 +1,46 @@
 package com.adityachandel.booklore.service;
 
 import com.adityachandel.booklore.exception.ApiError;
-import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.mapper.BookMapper;
 import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookFingerprint;
+import com.adityachandel.booklore.model.dto.PendingRemoval;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.entity.QuarantinedFileEntity;
+import com.adityachandel.booklore.model.entity.ScanJobEntity;
 import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.ScanJobType;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
-import com.adityachandel.booklore.service.fileprocessor.EpubProcessor;
-import com.adityachandel.booklore.service.fileprocessor.PdfProcessor;
+import com.adityachandel.booklore.repository.QuarantinedFileRepository;
+import com.adityachandel.booklore.service.fileprocessor.RegionHashes;
+import com.adityachandel.booklore.service.ingestion.CoverGenerationQueue;
+import com.adityachandel.booklore.service.ingestion.IngestionStats;
+import com.adityachandel.booklore.service.ingestion.LibraryFileSource;
+import com.adityachandel.booklore.service.ingestion.LibraryIngestionPipeline;
+import com.adityachandel.booklore.service.ingestion.ScanCheckpoint;
+import com.adityachandel.booklore.service.ingestion.ScanJobTracker;
 import com.adityachandel.booklore.util.FileUtils;
-import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
 
@@ -33,23 +49,50 @@ import static com.adityachandel.booklore.model.websocket.LogNotification.createL
 @Slf4j
 public class LibraryProcessingService {
 
+    private static final int MOVE_VERIFY_SAMPLE = 20;
+
     private final LibraryRepository libraryRepository;
     private final NotificationService notificationService;
-    private final PdfProcessor pdfProcessor;
-    private final EpubProcessor epubProcessor;
+    private final LibraryIngestionPipeline ingestionPipeline;
     private final BookRepository bookRepository;
-    private final EntityManager entityManager;
+    private final PendingBookRemovals pendingBookRemovals;
+    private final BookMapper bookMapper;
+    private final QuarantinedFileRepository quarantinedFileRepository;
+    private final ScanJobTracker scanJobTracker;
+    private final RemovalGuard removalGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final CoverGenerationQueue coverGenerationQueue;
 
-    @Transactional
     public void processLibrary(long libraryId) throws IOException {
         LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
         notificationService.sendMessage(Topic.LOG, createLogNotification("Started processing library: " + libraryEntity.getName()));
-        List<LibraryFile> libraryFiles = getLibraryFiles(libraryEntity);
-        processLibraryFiles(libraryFiles);
-        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished processing library: " + libraryEntity.getName()));
+        IngestionStats stats = runScanJob(ScanJobType.LIBRARY_SCAN, libraryEntity, sink -> walkLibraryFiles(libraryEntity, sink));
+        coverGenerationQueue.regenerateMissingCovers(libraryId);
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished processing library: " + libraryEntity.getName() + ", " + stats));
+    }
+
+    public void resumeScanJob(ScanJobEntity scanJob) throws IOException {
+        Optional<LibraryEntity> library = libraryRepository.findById(scanJob.getLibraryId());
+        if (library.isEmpty() || scanJob.getType() != ScanJobType.LIBRARY_SCAN) {
+            scanJobTracker.markInterrupted(scanJob);
+            if (library.isPresent() && scanJob.getType() == ScanJobType.LIBRARY_RESCAN) {
+                rescanLibrary(scanJob.getLibraryId());
+            }
+            return;
+        }
+        LibraryEntity libraryEntity = library.get();
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Resumed processing library: " + libraryEntity.getName()));
+        ScanJobTracker.TrackedJob job = scanJobTracker.resume(scanJob, libraryEntity);
+        ScanCheckpoint checkpoint = job.getStats().getCheckpoint();
+        IngestionStats stats = runScanJob(job, sink -> walkLibraryFiles(libraryEntity, libraryFile -> {
+            if (!checkpoint.isCommitted(libraryFile)) {
+                sink.accept(libraryFile);
+            }
+        }));
+        coverGenerationQueue.regenerateMissingCovers(libraryEntity.getId());
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished processing library: " + libraryEntity.getName() + ", " + stats));
     }
 
-    @Transactional
     public void processFile(WatchEvent.Kind<?> eventKind, long libraryId, String libraryPath, String filePath) {
         LibraryEntity libraryEntity = libraryRepository.findById(libraryId)
                 .orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
@@ -61,7 +104,6 @@ public class LibraryProcessingService {
             notificationService.sendMessage(Topic.LOG, createLogNotification("Started processing file: " + filePath));
 
             LibraryPathEntity libraryPathEntity = getLibraryPathEntityForFile(libraryEntity, libraryPath);
-            libraryPathEntity = entityManager.merge(libraryPathEntity);
 
             LibraryFile libraryFile = LibraryFile.builder()
                     .libraryEntity(libraryEntity)
@@ -71,16 +113,157 @@ public class LibraryProcessingService {
                     .bookFileType(getBookFileType(fileName))
                     .build();
 
-            processLibraryFiles(List.of(libraryFile));
+            Optional<BookEntity> movedBook = findMovedBook(libraryFile, path, libraryId);
+            if (movedBook.isPresent() && isUnchanged(movedBook.get(), libraryFile)) {
+                relocateBook(movedBook.get(), libraryFile);
+            } else {
+                movedBook.ifPresent(bookEntity -> {
+                    pendingBookRemovals.cancel(bookEntity.getId());
+                    libraryFile.setBookId(bookEntity.getId());
+                });
+                try {
+                    processLibraryFiles(sink -> sink.accept(libraryFile));
+                } catch (IOException e) {
+                    log.error("Error while processing file {}, error: {}", filePath, e.getMessage());
+                }
+            }
             notificationService.sendMessage(Topic.LOG, createLogNotification("Finished processing file: " + filePath));
 
+        } else if (eventKind == StandardWatchEventKinds.ENTRY_MODIFY) {
+            Optional<BookEntity> bookEntity = bookRepository.findBookByFileNameAndLibraryId(fileName, libraryId)
+                    .filter(book -> Path.of(FileUtils.getBookFullPath(book)).equals(path));
+            if (bookEntity.isEmpty()) {
+                processFile(StandardWatchEventKinds.ENTRY_CREATE, libraryId, libraryPath, filePath);
+            } else {
+                refreshModifiedBook(bookEntity.get(), path);
+            }
+
         } else if (eventKind == StandardWatchEventKinds.ENTRY_DELETE) {
             bookRepository.findBookByFileNameAndLibraryId(fileName, libraryId)
-                .ifPresent(bookEntity -> {
-                    deleteRemovedBooks(List.of(bookEntity));
-                    notificationService.sendMessage(Topic.BOOKS_REMOVE, Set.of(bookEntity.getId()));
-                });
+                    .filter(bookEntity -> Files.notExists(Path.of(FileUtils.getBookFullPath(bookEntity))) && removalGuard.isAvailable(bookEntity.getLibraryPath()))
+                    .ifPresent(bookEntity -> pendingBookRemovals.schedule(bookEntity.getId(), () -> deleteRemovedBooks(Set.of(bookEntity.getId()))));
+        }
+    }
+
+    private void refreshModifiedBook(BookEntity bookEntity, Path path) {
+        LibraryFile libraryFile = LibraryFile.builder()
+                .libraryEntity(bookEntity.getLibrary())
+                .libraryPathEntity(bookEntity.getLibraryPath())
+                .fileSubPath(bookEntity.getFileSubPath())
+                .fileName(bookEntity.getFileName())
+                .bookFileType(getBookFileType(bookEntity.getFileName()))
+                .bookId(bookEntity.getId())
+                .build();
+        try {
+            FileUtils.setFileAttributes(libraryFile, Files.readAttributes(path, BasicFileAttributes.class));
+        } catch (IOException e) {
+            log.warn("Unable to read modified file {}, error: {}", path, e.getMessage());
+            return;
+        }
+        if (Objects.equals(bookEntity.getFileSize(), libraryFile.getFileSize())
+                && Objects.equals(bookEntity.getFileLastModified(), libraryFile.getFileLastModified())) {
+            return;
+        }
+        setContentHash(libraryFile);
+        RegionHashes regionHashes = hashRegions(libraryFile);
+        BookMetadataEntity metadata = bookEntity.getMetadata();
+        boolean metadataLocked = metadata != null && Boolean.TRUE.equals(metadata.getAllFieldsLocked());
+        boolean coverLocked = metadataLocked || metadata != null && Boolean.TRUE.equals(metadata.getCoverLocked());
+        boolean metadataChanged = !metadataLocked && (regionHashes == null || bookEntity.getMetadataHash() == null
+                || !Objects.equals(bookEntity.getMetadataHash(), regionHashes.metadataHash()));
+        boolean coverChanged = !coverLocked && (regionHashes == null || bookEntity.getCoverHash() == null
+                || !Objects.equals(bookEntity.getCoverHash(), regionHashes.coverHash()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            updateFingerprint(bookEntity.getId(), libraryFile);
+            if (regionHashes != null) {
+                bookRepository.updateRegionHashes(bookEntity.getId(), regionHashes.metadataHash(), regionHashes.coverHash());
+            }
+        });
+        if (!metadataChanged && !coverChanged) {
+            log.info("Book {} touched without metadata or cover changes: {}", bookEntity.getId(), path);
+            return;
+        }
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Started refreshing file: " + path));
+        if (metadataChanged) {
+            libraryFile.setSkipCover(!coverChanged);
+            try {
+                processLibraryFiles(sink -> sink.accept(libraryFile));
+            } catch (IOException e) {
+                log.error("Error while refreshing file {}, error: {}", path, e.getMessage());
+            }
+        } else if (!coverGenerationQueue.enqueue(bookEntity.getId(), libraryFile) && regionHashes != null) {
+            log.warn("Cover queue is full, cover of book {} will be refreshed on the next change", bookEntity.getId());
+            transactionTemplate.executeWithoutResult(status -> bookRepository.updateRegionHashes(bookEntity.getId(), regionHashes.metadataHash(), null));
+        }
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished refreshing file: " + path));
+    }
+
+    private RegionHashes hashRegions(LibraryFile libraryFile) {
+        try {
+            return ingestionPipeline.hashRegions(libraryFile);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to hash metadata and cover regions of {}, error: {}", libraryFile.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Optional<BookEntity> findMovedBook(LibraryFile libraryFile, Path path, long libraryId) {
+        try {
+            FileUtils.setFileAttributes(libraryFile, Files.readAttributes(path, BasicFileAttributes.class));
+            libraryFile.setContentHash(FileUtils.computeContentHash(path));
+        } catch (IOException e) {
+            log.warn("Unable to fingerprint file {}, error: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+        Optional<BookEntity> sameName = bookRepository.findBookByFileNameAndLibraryId(libraryFile.getFileName(), libraryId)
+                .filter(bookEntity -> Path.of(FileUtils.getBookFullPath(bookEntity)).equals(path) || isMissingFromDisk(bookEntity));
+        if (sameName.isPresent()) {
+            return sameName;
+        }
+        return bookRepository.findByLibraryIdAndFileSizeAndContentHash(libraryId, libraryFile.getFileSize(), libraryFile.getContentHash())
+                .stream()
+                .filter(this::isMissingFromDisk)
+                .findFirst();
+    }
+
+    private boolean isMissingFromDisk(BookEntity bookEntity) {
+        return Files.notExists(Path.of(FileUtils.getBookFullPath(bookEntity)));
+    }
+
+    private void relocateBook(BookEntity bookEntity, LibraryFile libraryFile) {
+        pendingBookRemovals.cancel(bookEntity.getId());
+        Book book = transactionTemplate.execute(status -> {
+            bookRepository.updateLocation(bookEntity.getId(), libraryFile.getLibraryPathEntity(), libraryFile.getFileSubPath(), libraryFile.getFileName());
+            bookRepository.updateFingerprint(bookEntity.getId(), libraryFile.getFileSize(), libraryFile.getFileLastModified(), libraryFile.getFileKey(), libraryFile.getContentHash());
+            return bookRepository.findById(bookEntity.getId()).map(bookMapper::toBook).orElse(null);
+        });
+        if (book == null) {
+            return;
+        }
+        notificationService.sendMessage(Topic.BOOK_METADATA_UPDATE, book);
+        log.info("Book {} moved to {}", bookEntity.getId(), FileUtils.getFileFullPath(libraryFile));
+    }
+
+    public void retryQuarantinedFile(long quarantinedFileId) throws IOException {
+        QuarantinedFileEntity quarantinedFile = quarantinedFileRepository.findWithLocationById(quarantinedFileId)
+                .orElseThrow(() -> ApiError.QUARANTINED_FILE_NOT_FOUND.createException(quarantinedFileId));
+        LibraryFile libraryFile = LibraryFile.builder()
+                .libraryEntity(quarantinedFile.getLibrary())
+                .libraryPathEntity(quarantinedFile.getLibraryPath())
+                .fileSubPath(quarantinedFile.getFileSubPath())
+                .fileName(quarantinedFile.getFileName())
+                .bookFileType(getBookFileType(quarantinedFile.getFileName()))
+                .build();
+        quarantinedFileRepository.deleteById(quarantinedFileId);
+        Path path = Path.of(FileUtils.getFileFullPath(libraryFile));
+        if (Files.notExists(path)) {
+            log.info("Quarantined file {} no longer exists, dropping it", path);
+            return;
         }
+        FileUtils.setFileAttributes(libraryFile, Files.readAttributes(path, BasicFileAttributes.class));
+        IngestionStats stats = processLibraryFiles(sink -> sink.accept(libraryFile));
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Retried quarantined file: " + libraryFile.getFileName() + ", " + stats));
     }
 
     @Transactional
@@ -99,104 +282,303 @@ public class LibraryProcessingService {
         }
     }
 
-    @Transactional
     public void rescanLibrary(long libraryId) throws IOException {
         LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
         notificationService.sendMessage(Topic.LOG, createLogNotification("Started refreshing library: " + libraryEntity.getName()));
-        processLibraryFiles(getUnProcessedFiles(libraryEntity));
-        deleteRemovedBooks(getRemovedBooks(libraryEntity));
-        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished refreshing library: " + libraryEntity.getName()));
+        IngestionStats stats = rescan(libraryEntity, fingerprint -> true, sink -> walkLibraryFiles(libraryEntity, sink), true);
+        coverGenerationQueue.regenerateMissingCovers(libraryId);
+        notificationService.sendMessage(Topic.LOG, createLogNotification("Finished refreshing library: " + libraryEntity.getName() + ", " + stats));
+    }
+
+    public void rescanDirectory(long libraryId, String libraryPath, Path directory) throws IOException {
+        LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        LibraryPathEntity libraryPathEntity = getLibraryPathEntityForFile(libraryEntity, libraryPath);
+        String subPath = toSubPath(Path.of(libraryPathEntity.getPath()), directory);
+        Long libraryPathId = libraryPathEntity.getId();
+        IngestionStats stats = rescan(libraryEntity,
+                fingerprint -> Objects.equals(fingerprint.getLibraryPathId(), libraryPathId) && isWithinSubPath(fingerprint.getFileSubPath(), subPath),
+                sink -> walkDirectory(directory, libraryPathEntity, libraryEntity, sink),
+                false);
+        log.info("Rescanned directory {}: {}", directory, stats);
     }
 
     @Transactional
-    protected void deleteRemovedBooks(List<BookEntity> removedBookEntities) {
-        if (!removedBookEntities.isEmpty()) {
-            Set<Long> bookIds = removedBookEntities.stream().map(BookEntity::getId).collect(Collectors.toSet());
-            bookRepository.deleteByIdIn(bookIds);
-            notificationService.sendMessage(Topic.BOOKS_REMOVE, bookIds);
-            log.info("Books removed: {}", bookIds);
+    public int moveDirectory(long libraryId, String libraryPath, Path from, Path to) {
+        LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        LibraryPathEntity libraryPathEntity = getLibraryPathEntityForFile(libraryEntity, libraryPath);
+        Path root = Path.of(libraryPathEntity.getPath());
+        String fromSubPath = toSubPath(root, from);
+        String toSubPath = toSubPath(root, to);
+        List<BookFingerprint> books = findFingerprintsUnder(libraryId, libraryPathEntity.getId(), fromSubPath);
+        if (books.isEmpty()) {
+            return 0;
         }
+        if (!hasMovedContent(books, fromSubPath, to)) {
+            return -1;
+        }
+        Map<String, String> subPathMoves = books.stream()
+                .map(BookFingerprint::getFileSubPath)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), subPath -> movedSubPath(subPath, fromSubPath, toSubPath)));
+        int moved = subPathMoves.entrySet().stream()
+                .mapToInt(move -> bookRepository.updateSubPath(libraryPathEntity.getId(), move.getKey(), move.getValue()))
+                .sum();
+        List<Long> bookIds = books.stream().map(BookFingerprint::getId).toList();
+        bookIds.forEach(pendingBookRemovals::cancel);
+        notificationService.sendMessage(Topic.BOOKS_UPDATE, bookRepository.findAllById(bookIds).stream().map(bookMapper::toBook).toList());
+        log.info("Moved {} books from {} to {}", moved, from, to);
+        return moved;
     }
 
-    @Transactional
-    protected void processLibraryFiles(List<LibraryFile> libraryFiles) {
-        for (LibraryFile libraryFile : libraryFiles) {
-            log.info("Processing file: {}", libraryFile.getFileName());
-            Book book = processLibraryFile(libraryFile);
-            if (book != null) {
-                notificationService.sendMessage(Topic.BOOK_ADD, book);
-                notificationService.sendMessage(Topic.LOG, createLogNotification("Book added: " + book.getFileName()));
-                log.info("Processed file: {}", libraryFile.getFileName());
+    public boolean isMovedDirectory(long libraryId, String libraryPath, Path from, Path to) {
+        LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        LibraryPathEntity libraryPathEntity = getLibraryPathEntityForFile(libraryEntity, libraryPath);
+        String fromSubPath = toSubPath(Path.of(libraryPathEntity.getPath()), from);
+        List<BookFingerprint> books = findFingerprintsUnder(libraryId, libraryPathEntity.getId(), fromSubPath);
+        return !books.isEmpty() && hasMovedContent(books, fromSubPath, to);
+    }
+
+    private boolean hasMovedContent(List<BookFingerprint> books, String fromSubPath, Path to) {
+        return books.stream().limit(MOVE_VERIFY_SAMPLE).allMatch(book -> {
+            Path file = to.resolve(remainderOf(book.getFileSubPath(), fromSubPath)).resolve(book.getFileName());
+            try {
+                return Objects.equals(book.getFileSize(), Files.size(file))
+                        && (book.getContentHash() == null || book.getContentHash() == FileUtils.computeContentHash(file));
+            } catch (IOException e) {
+                return false;
             }
-        }
+        });
     }
 
     @Transactional
-    protected Book processLibraryFile(LibraryFile libraryFile) {
-        if (libraryFile.getBookFileType() == BookFileType.PDF) {
-            return pdfProcessor.processFile(libraryFile, false);
-        } else if (libraryFile.getBookFileType() == BookFileType.EPUB) {
-            return epubProcessor.processFile(libraryFile, false);
+    public void deleteDirectory(long libraryId, String libraryPath, Path directory) {
+        if (Files.exists(directory)) {
+            return;
         }
-        return null;
+        LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        LibraryPathEntity libraryPathEntity = getLibraryPathEntityForFile(libraryEntity, libraryPath);
+        List<BookFingerprint> fingerprints = bookRepository.findFingerprintsByLibraryId(libraryId);
+        String subPath = toSubPath(Path.of(libraryPathEntity.getPath()), directory);
+        List<BookFingerprint> removed = fingerprints.stream()
+                .filter(fingerprint -> Objects.equals(fingerprint.getLibraryPathId(), libraryPathEntity.getId()) && isWithinSubPath(fingerprint.getFileSubPath(), subPath))
+                .toList();
+        Set<Long> bookIds = removalGuard.admit(libraryEntity, removed, fingerprints.size());
+        bookIds.forEach(pendingBookRemovals::cancel);
+        deleteRemovedBooks(bookIds);
     }
 
     @Transactional
-    protected List<BookEntity> getRemovedBooks(LibraryEntity libraryEntity) throws IOException {
-        List<LibraryFile> libraryFiles = getLibraryFiles(libraryEntity);
-        List<BookEntity> bookEntities = libraryEntity.getBookEntities();
-        Set<String> libraryFilePaths = libraryFiles.stream()
-                .map(LibraryFile::getFileName)
+    public int confirmPendingRemoval(long libraryId) {
+        PendingRemoval pendingRemoval = removalGuard.takePendingRemoval(libraryId)
+                .orElseThrow(() -> ApiError.PENDING_REMOVAL_NOT_FOUND.createException(libraryId));
+        Set<Long> bookIds = bookRepository.findAllById(pendingRemoval.getBookIds()).stream()
+                .filter(bookEntity -> Files.notExists(Path.of(FileUtils.getBookFullPath(bookEntity))))
+                .map(BookEntity::getId)
                 .collect(Collectors.toSet());
-        return bookEntities.stream()
-                .filter(book -> !libraryFilePaths.contains(book.getFileName()))
-                .collect(Collectors.toList());
+        deleteRemovedBooks(bookIds);
+        return bookIds.size();
     }
 
-    @Transactional
-    protected List<LibraryFile> getUnProcessedFiles(LibraryEntity libraryEntity) throws IOException {
-        List<LibraryFile> libraryFiles = getLibraryFiles(libraryEntity);
-        List<BookEntity> bookEntities = libraryEntity.getBookEntities();
-        Set<String> processedPaths = bookEntities.stream()
-                .map(BookEntity::getFileName)
+    private List<BookFingerprint> findFingerprintsUnder(long libraryId, Long libraryPathId, String subPath) {
+        return bookRepository.findFingerprintsByLibraryId(libraryId).stream()
+                .filter(fingerprint -> Objects.equals(fingerprint.getLibraryPathId(), libraryPathId) && isWithinSubPath(fingerprint.getFileSubPath(), subPath))
+                .toList();
+    }
+
+    static String movedSubPath(String fileSubPath, String fromSubPath, String toSubPath) {
+        String remainder = remainderOf(fileSubPath, fromSubPath);
+        if (toSubPath.isEmpty()) {
+            return remainder;
+        }
+        return remainder.isEmpty() ? toSubPath : toSubPath + "/" + remainder;
+    }
+
+    private static String remainderOf(String fileSubPath, String fromSubPath) {
+        String subPath = fileSubPath == null ? "" : fileSubPath;
+        if (fromSubPath.isEmpty()) {
+            return subPath;
+        }
+        return subPath.substring(fromSubPath.length()).replaceFirst("^/", "");
+    }
+
+    private static String toSubPath(Path root, Path directory) {
+        return root.relativize(directory).toString().replace("\\", "/");
+    }
+
+    private IngestionStats rescan(LibraryEntity libraryEntity, Predicate<BookFingerprint> inScope, LibraryFileSource walker, boolean tracked) throws IOException {
+        Map<String, BookFingerprint> manifest = bookRepository.findFingerprintsByLibraryId(libraryEntity.getId()).stream()
+                .filter(inScope)
+                .collect(Collectors.toMap(BookFingerprint::getFileName, Function.identity(), (first, second) -> first));
+        int booksInScope = manifest.size();
+        Set<Long> manifestSizes = manifest.values().stream()
+                .filter(fingerprint -> fingerprint.getContentHash() != null)
+                .map(BookFingerprint::getFileSize)
                 .collect(Collectors.toSet());
-        return libraryFiles.stream()
-                .filter(libraryFile -> !processedPaths.contains(libraryFile.getFileName()))
-                .collect(Collectors.toList());
-    }
-
-    private List<LibraryFile> getLibraryFiles(LibraryEntity libraryEntity) throws IOException {
-        List<LibraryFile> libraryFiles = new ArrayList<>();
-        for (LibraryPathEntity libraryPathEntity : libraryEntity.getLibraryPaths()) {
-            libraryFiles.addAll(findLibraryFiles(libraryPathEntity, libraryEntity));
-        }
-        return libraryFiles;
-    }
-
-    private List<LibraryFile> findLibraryFiles(LibraryPathEntity libraryPathEntity, LibraryEntity libraryEntity) throws IOException {
-        List<LibraryFile> libraryFiles = new ArrayList<>();
-        Path libraryPath = Path.of(libraryPathEntity.getPath());
-        try (var stream = Files.walk(libraryPath)) {
-            stream.filter(Files::isRegularFile)
-                    .filter(file -> {
-                        String fileName = file.getFileName().toString().toLowerCase();
-                        return fileName.endsWith(".pdf") || fileName.endsWith(".epub");
-                    })
-                    .forEach(fullFilePath -> {
-                        BookFileType fileType = fullFilePath.getFileName().toString().toLowerCase().endsWith(".pdf")
-                                ? BookFileType.PDF
-                                : BookFileType.EPUB;
-                        String relativePath = FileUtils.getRelativeSubPath(libraryPathEntity.getPath(), fullFilePath);
-                        LibraryFile libraryFile = LibraryFile.builder()
-                                .libraryEntity(libraryEntity)
-                                .libraryPathEntity(libraryPathEntity)
-                                .fileSubPath(relativePath)
-                                .fileName(fullFilePath.getFileName().toString())
-                                .bookFileType(fileType)
-                                .build();
-                        libraryFiles.add(libraryFile);
-                    });
-        }
-        return libraryFiles;
-    }
-}
\ No newline at end of file
+        List<LibraryFile> possiblyMoved = new ArrayList<>();
+        LibraryFileSource source = sink -> {
+            walker.forEach(libraryFile -> {
+                BookFingerprint fingerprint = manifest.remove(libraryFile.getFileName());
+                if (fingerprint == null) {
+                    if (manifestSizes.contains(libraryFile.getFileSize())) {
+                        possiblyMoved.add(libraryFile);
+                    } else {
+                        sink.accept(libraryFile);
+                    }
+                    return;
+                }
+                libraryFile.setBookId(fingerprint.getId());
+                pendingBookRemovals.cancel(fingerprint.getId());
+                if (fingerprint.getFileSize() != null && !isUnchanged(fingerprint, libraryFile)) {
+                    sink.accept(libraryFile);
+                    return;
+                }
+                if (fingerprint.getFileSize() == null || fingerprint.getContentHash() == null) {
+                    setContentHash(libraryFile);
+                    updateFingerprint(fingerprint.getId(), libraryFile);
+                }
+                if (isRelocated(fingerprint, libraryFile)) {
+                    updateLocation(fingerprint.getId(), libraryFile);
+                }
+            });
+            Map<String, BookFingerprint> removedByContent = manifest.values().stream()
+                    .filter(fingerprint -> fingerprint.getContentHash() != null)
+                    .collect(Collectors.toMap(fingerprint -> contentKey(fingerprint.getFileSize(), fingerprint.getContentHash()), Function.identity(), (first, second) -> first));
+            for (LibraryFile libraryFile : possiblyMoved) {
+                setContentHash(libraryFile);
+                BookFingerprint fingerprint = libraryFile.getContentHash() == null ? null
+                        : removedByContent.remove(contentKey(libraryFile.getFileSize(), libraryFile.getContentHash()));
+                if (fingerprint == null) {
+                    sink.accept(libraryFile);
+                    continue;
+                }
+                manifest.remove(fingerprint.getFileName());
+                pendingBookRemovals.cancel(fingerprint.getId());
+                transactionTemplate.executeWithoutResult(status -> {
+                    updateLocation(fingerprint.getId(), libraryFile);
+                    updateFingerprint(fingerprint.getId(), libraryFile);
+                });
+                log.info("Book {} renamed from {} to {}", fingerprint.getId(), fingerprint.getFileName(), libraryFile.getFileName());
+            }
+        };
+        IngestionStats stats = tracked ? runScanJob(ScanJobType.LIBRARY_RESCAN, libraryEntity, source) : processLibraryFiles(source);
+        deleteRemovedBooks(removalGuard.admit(libraryEntity, manifest.values(), booksInScope));
+        return stats;
+    }
+
+    private static boolean isWithinSubPath(String fileSubPath, String subPath) {
+        if (subPath.isEmpty()) {
+            return true;
+        }
+        return fileSubPath != null && (fileSubPath.equals(subPath) || fileSubPath.startsWith(subPath + "/"));
+    }
+
+    private void updateFingerprint(long bookId, LibraryFile libraryFile) {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.updateFingerprint(bookId, libraryFile.getFileSize(), libraryFile.getFileLastModified(), libraryFile.getFileKey(), libraryFile.getContentHash()));
+    }
+
+    private void updateLocation(long bookId, LibraryFile libraryFile) {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.updateLocation(bookId, libraryFile.getLibraryPathEntity(), libraryFile.getFileSubPath(), libraryFile.getFileName()));
+    }
+
+    protected void deleteRemovedBooks(Set<Long> bookIds) {
+        if (!bookIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> bookRepository.deleteByIdIn(bookIds));
+            notificationService.sendMessage(Topic.BOOKS_REMOVE, bookIds);
+            log.info("Books removed: {}", bookIds);
+        }
+    }
+
+    protected IngestionStats processLibraryFiles(LibraryFileSource source) throws IOException {
+        return ingestionPipeline.ingest(source);
+    }
+
+    protected IngestionStats runScanJob(ScanJobType type, LibraryEntity libraryEntity, LibraryFileSource source) throws IOException {
+        return runScanJob(scanJobTracker.start(type, libraryEntity), source);
+    }
+
+    private IngestionStats runScanJob(ScanJobTracker.TrackedJob job, LibraryFileSource source) throws IOException {
+        try {
+            IngestionStats stats = ingestionPipeline.ingest(source, job.getStats());
+            scanJobTracker.complete(job);
+            return stats;
+        } catch (IOException | RuntimeException e) {
+            scanJobTracker.fail(job, e);
+            throw e;
+        }
+    }
+
+    private boolean isUnchanged(BookFingerprint fingerprint, LibraryFile libraryFile) {
+        return Objects.equals(fingerprint.getFileSize(), libraryFile.getFileSize())
+                && Objects.equals(fingerprint.getFileLastModified(), libraryFile.getFileLastModified())
+                && (fingerprint.getFileKey() == null || libraryFile.getFileKey() == null || fingerprint.getFileKey().equals(libraryFile.getFileKey()));
+    }
+
+    private boolean isUnchanged(BookEntity bookEntity, LibraryFile libraryFile) {
+        return Objects.equals(bookEntity.getFileSize(), libraryFile.getFileSize())
+                && Objects.equals(bookEntity.getContentHash(), libraryFile.getContentHash());
+    }
+
+    private void setContentHash(LibraryFile libraryFile) {
+        try {
+            libraryFile.setContentHash(FileUtils.computeContentHash(Path.of(FileUtils.getFileFullPath(libraryFile))));
+        } catch (IOException e) {
+            log.warn("Unable to hash file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+        }
+    }
+
+    private static String contentKey(Long fileSize, Long contentHash) {
+        return fileSize + ":" + contentHash;
+    }
+
+    private boolean isRelocated(BookFingerprint fingerprint, LibraryFile libraryFile) {
+        return !Objects.equals(fingerprint.getLibraryPathId(), libraryFile.getLibraryPathEntity().getId())
+                || !Objects.equals(fingerprint.getFileSubPath(), libraryFile.getFileSubPath());
+    }
+
+    private void walkLibraryFiles(LibraryEntity libraryEntity, Consumer<LibraryFile> consumer) throws IOException {
+        List<LibraryPathEntity> libraryPaths = libraryEntity.getLibraryPaths().stream()
+                .sorted(Comparator.comparing(LibraryPathEntity::getId))
+                .toList();
+        for (LibraryPathEntity libraryPathEntity : libraryPaths) {
+            walkDirectory(Path.of(libraryPathEntity.getPath()), libraryPathEntity, libraryEntity, consumer);
+        }
+    }
+
+    private void walkDirectory(Path directory, LibraryPathEntity libraryPathEntity, LibraryEntity libraryEntity, Consumer<LibraryFile> consumer) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> stream = Files.list(directory)) {
+            entries = stream.sorted(Comparator.comparing(entry -> entry.getFileName().toString())).toList();
+        }
+        for (Path fullFilePath : entries) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(fullFilePath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                log.warn("Unable to read file {}, error: {}", fullFilePath, e.getMessage());
+                continue;
+            }
+            if (attributes.isDirectory()) {
+                try {
+                    walkDirectory(fullFilePath, libraryPathEntity, libraryEntity, consumer);
+                } catch (IOException e) {
+                    log.warn("Unable to read directory {}, error: {}", fullFilePath, e.getMessage());
+                }
+                continue;
+            }
+            String fileName = fullFilePath.getFileName().toString();
+            String lowerCaseFileName = fileName.toLowerCase();
+            if (!attributes.isRegularFile() || !(lowerCaseFileName.endsWith(".pdf") || lowerCaseFileName.endsWith(".epub"))) {
+                continue;
+            }
+            LibraryFile libraryFile = LibraryFile.builder()
+                    .libraryEntity(libraryEntity)
+                    .libraryPathEntity(libraryPathEntity)
+                    .fileSubPath(FileUtils.getRelativeSubPath(libraryPathEntity.getPath(), fullFilePath))
+                    .fileName(fileName)
+                    .bookFileType(lowerCaseFileName.endsWith(".pdf") ? BookFileType.PDF : BookFileType.EPUB)
+                    .build();
+            FileUtils.setFileAttributes(libraryFile, attributes);
+            consumer.accept(libraryFile);
+        }
+    }
+}
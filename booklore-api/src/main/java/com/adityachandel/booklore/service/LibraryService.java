@@ -8,22 +8,28 @@ import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.dto.Library;
 import com.adityachandel.booklore.model.dto.LibraryPath;
+import com.adityachandel.booklore.model.dto.PendingRemoval;
 import com.adityachandel.booklore.model.dto.request.CreateLibraryRequest;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.BookLoreUserEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.entity.ScanJobEntity;
+import com.adityachandel.booklore.model.enums.WatchMode;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryPathRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.repository.UserRepository;
 import com.adityachandel.booklore.service.fileprocessor.FileProcessingUtils;
+import com.adityachandel.booklore.service.ingestion.ScanJobTracker;
 import com.adityachandel.booklore.service.monitoring.MonitoringService;
 import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -52,15 +58,33 @@ public class LibraryService {
     private final MonitoringService monitoringService;
     private final AuthenticationService authenticationService;
     private final UserRepository userRepository;
+    private final ScanJobTracker scanJobTracker;
+    private final RemovalGuard removalGuard;
 
     @Transactional
     @PostConstruct
     public void initializeMonitoring() {
         List<Library> libraries = libraryRepository.findAll().stream().map(libraryMapper::toLibrary).collect(Collectors.toList());
         monitoringService.registerLibrariesForMonitoring(libraries);
+        monitoringService.restorePendingEvents();
         log.info("Monitoring initialized with {} libraries", libraries.size());
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedScans() {
+        for (ScanJobEntity scanJob : scanJobTracker.findInterruptedJobs()) {
+            Thread.startVirtualThread(() -> {
+                try {
+                    libraryProcessingService.resumeScanJob(scanJob);
+                } catch (InvalidDataAccessApiUsageException e) {
+                    log.warn("InvalidDataAccessApiUsageException - Library id: {}", scanJob.getLibraryId());
+                } catch (IOException e) {
+                    log.error("Error while resuming scan job {}", scanJob.getId(), e);
+                }
+            });
+        }
+    }
+
     public Library updateLibrary(CreateLibraryRequest request, Long libraryId) {
         LibraryEntity library = libraryRepository.findById(libraryId)
                 .orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
@@ -68,6 +92,7 @@ public class LibraryService {
         library.setName(request.getName());
         library.setIcon(request.getIcon());
         library.setWatch(request.isWatch());
+        library.setWatchMode(resolveWatchMode(request));
 
         Set<String> currentPaths = library.getLibraryPaths().stream()
                 .map(LibraryPathEntity::getPath)
@@ -113,7 +138,7 @@ public class LibraryService {
         if (request.isWatch()) {
             for (LibraryPathEntity pathEntity : savedLibrary.getLibraryPaths()) {
                 Path path = Paths.get(pathEntity.getPath());
-                monitoringService.registerPath(path, libraryId);
+                monitoringService.registerPath(path, libraryId, savedLibrary.getWatchMode());
             }
         } else {
             for (LibraryPathEntity pathEntity : savedLibrary.getLibraryPaths()) {
@@ -149,6 +174,7 @@ public class LibraryService {
                 )
                 .icon(request.getIcon())
                 .watch(request.isWatch())
+                .watchMode(resolveWatchMode(request))
                 .build();
 
         libraryEntity = libraryRepository.save(libraryEntity);
@@ -157,7 +183,7 @@ public class LibraryService {
         if (request.isWatch()) {
             for (LibraryPathEntity pathEntity : libraryEntity.getLibraryPaths()) {
                 Path path = Paths.get(pathEntity.getPath());
-                monitoringService.registerPath(path, libraryId);
+                monitoringService.registerPath(path, libraryId, libraryEntity.getWatchMode());
             }
         }
 
@@ -175,6 +201,10 @@ public class LibraryService {
         return libraryMapper.toLibrary(libraryEntity);
     }
 
+    private static WatchMode resolveWatchMode(CreateLibraryRequest request) {
+        return request.getWatchMode() != null ? request.getWatchMode() : WatchMode.NATIVE;
+    }
+
     public void rescanLibrary(long libraryId) {
         libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
         Thread.startVirtualThread(() -> {
@@ -189,6 +219,20 @@ public class LibraryService {
         });
     }
 
+    public PendingRemoval getPendingRemoval(long libraryId) {
+        return removalGuard.getPendingRemoval(libraryId).orElseThrow(() -> ApiError.PENDING_REMOVAL_NOT_FOUND.createException(libraryId));
+    }
+
+    public int confirmPendingRemoval(long libraryId) {
+        libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        return libraryProcessingService.confirmPendingRemoval(libraryId);
+    }
+
+    public void discardPendingRemoval(long libraryId) {
+        removalGuard.takePendingRemoval(libraryId).orElseThrow(() -> ApiError.PENDING_REMOVAL_NOT_FOUND.createException(libraryId));
+        log.info("Discarded pending book removal for library {}", libraryId);
+    }
+
     public Library getLibrary(long libraryId) {
         LibraryEntity libraryEntity = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
         return libraryMapper.toLibrary(libraryEntity);
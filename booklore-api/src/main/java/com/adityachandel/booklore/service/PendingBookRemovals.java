@@ -0,0 +1,74 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PendingBookRemovals {
+
+    private final IngestionProperties ingestionProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, ScheduledFuture<?>> pendingRemovals = new ConcurrentHashMap<>();
+    private ScheduledExecutorService removalExecutor;
+    private TransactionTemplate requiresNewTransaction;
+
+    @PostConstruct
+    public void start() {
+        removalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-removal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        requiresNewTransaction = new TransactionTemplate(transactionManager);
+        requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    public void stop() {
+        removalExecutor.shutdownNow();
+    }
+
+    public void schedule(long bookId, Runnable removal) {
+        long delayMillis = ingestionProperties.getMoveDetectionWindow().toMillis();
+        pendingRemovals.compute(bookId, (id, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return removalExecutor.schedule(() -> remove(bookId, removal), delayMillis, TimeUnit.MILLISECONDS);
+        });
+        log.debug("Book {} will be removed in {} ms unless it reappears", bookId, delayMillis);
+    }
+
+    private void remove(long bookId, Runnable removal) {
+        if (pendingRemovals.remove(bookId) == null) {
+            return;
+        }
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> removal.run());
+        } catch (Exception e) {
+            log.error("Error while removing book {}, error: {}", bookId, e.getMessage());
+        }
+    }
+
+    public boolean cancel(long bookId) {
+        ScheduledFuture<?> pending = pendingRemovals.remove(bookId);
+        if (pending == null) {
+            return false;
+        }
+        pending.cancel(false);
+        return true;
+    }
+}
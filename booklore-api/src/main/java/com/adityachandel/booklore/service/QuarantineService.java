@@ -0,0 +1,82 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.mapper.QuarantinedFileMapper;
+import com.adityachandel.booklore.model.dto.QuarantinedFile;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.QuarantinedFileEntity;
+import com.adityachandel.booklore.model.enums.QuarantineReason;
+import com.adityachandel.booklore.repository.QuarantinedFileRepository;
+import com.adityachandel.booklore.util.FileUtils;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class QuarantineService {
+
+    private final QuarantinedFileRepository quarantinedFileRepository;
+    private final QuarantinedFileMapper quarantinedFileMapper;
+
+    @Transactional(readOnly = true)
+    public List<QuarantinedFile> getQuarantinedFiles(Long libraryId) {
+        List<QuarantinedFileEntity> entities = libraryId == null
+                ? quarantinedFileRepository.findAllByOrderByQuarantinedOnDesc()
+                : quarantinedFileRepository.findByLibraryIdOrderByQuarantinedOnDesc(libraryId);
+        return entities.stream().map(quarantinedFileMapper::toQuarantinedFile).toList();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean isQuarantined(LibraryFile libraryFile) {
+        Optional<QuarantinedFileEntity> quarantined = quarantinedFileRepository.findByFileNameAndLibraryId(libraryFile.getFileName(), libraryFile.getLibraryEntity().getId());
+        if (quarantined.isEmpty()) {
+            return false;
+        }
+        if (libraryFile.getFileLastModified() == null) {
+            try {
+                FileUtils.setFileAttributes(libraryFile, Files.readAttributes(Path.of(FileUtils.getFileFullPath(libraryFile)), BasicFileAttributes.class));
+            } catch (IOException e) {
+                return true;
+            }
+        }
+        QuarantinedFileEntity entity = quarantined.get();
+        if (Objects.equals(entity.getFileLastModified(), libraryFile.getFileLastModified()) && Objects.equals(entity.getFileSize(), libraryFile.getFileSize())) {
+            return true;
+        }
+        log.info("Quarantined file {} changed on disk, releasing it", libraryFile.getFileName());
+        quarantinedFileRepository.delete(entity);
+        return false;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void quarantine(LibraryFile libraryFile, QuarantineReason reason, String errorMessage, long elapsedMillis) {
+        QuarantinedFileEntity entity = quarantinedFileRepository.findByFileNameAndLibraryId(libraryFile.getFileName(), libraryFile.getLibraryEntity().getId())
+                .orElseGet(() -> QuarantinedFileEntity.builder()
+                        .library(libraryFile.getLibraryEntity())
+                        .fileName(libraryFile.getFileName())
+                        .build());
+        entity.setLibraryPath(libraryFile.getLibraryPathEntity());
+        entity.setFileSubPath(libraryFile.getFileSubPath());
+        entity.setFileSize(libraryFile.getFileSize());
+        entity.setFileLastModified(libraryFile.getFileLastModified());
+        entity.setReason(reason);
+        entity.setErrorMessage(errorMessage);
+        entity.setElapsedMillis(elapsedMillis);
+        entity.setAttempts(entity.getAttempts() + 1);
+        entity.setQuarantinedOn(Instant.now());
+        quarantinedFileRepository.save(entity);
+        log.warn("Quarantined file {} ({}, {} ms): {}", libraryFile.getFileName(), reason, elapsedMillis, errorMessage);
+    }
+}
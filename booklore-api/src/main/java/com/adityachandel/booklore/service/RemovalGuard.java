@@ -0,0 +1,133 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.dto.BookFingerprint;
+import com.adityachandel.booklore.model.dto.PendingRemoval;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.entity.PendingBookRemovalEntity;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.repository.PendingBookRemovalRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RemovalGuard {
+
+    private final BookRepository bookRepository;
+    private final IngestionProperties ingestionProperties;
+    private final NotificationService notificationService;
+    private final PendingBookRemovalRepository pendingBookRemovalRepository;
+    private final LibraryRepository libraryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isAvailable(LibraryPathEntity libraryPathEntity) {
+        Path path = Path.of(libraryPathEntity.getPath());
+        if (!Files.isDirectory(path) || !Files.isReadable(path)) {
+            return false;
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            return entries.findAny().isPresent() || !bookRepository.existsByLibraryPathId(libraryPathEntity.getId());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Unable to list library path {}, error: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    public Set<Long> admit(LibraryEntity libraryEntity, Collection<BookFingerprint> removed, int booksInScope) {
+        if (removed.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> unavailablePathIds = libraryEntity.getLibraryPaths().stream()
+                .filter(libraryPathEntity -> !isAvailable(libraryPathEntity))
+                .map(LibraryPathEntity::getId)
+                .collect(Collectors.toSet());
+        Set<Long> bookIds = removed.stream()
+                .filter(fingerprint -> !unavailablePathIds.contains(fingerprint.getLibraryPathId()))
+                .map(BookFingerprint::getId)
+                .collect(Collectors.toSet());
+        if (bookIds.size() < removed.size()) {
+            log.warn("Library {} has unavailable paths {}, keeping {} books that look removed",
+                    libraryEntity.getName(), unavailablePathIds, removed.size() - bookIds.size());
+        }
+        if (bookIds.size() > ingestionProperties.getRemovalGuardMinBooks()
+                && bookIds.size() > booksInScope * ingestionProperties.getMaxRemovedFraction()) {
+            int pending = defer(libraryEntity.getId(), bookIds, booksInScope);
+            log.warn("Deferred removal of {} of {} books in library {} until confirmed, {} books pending", bookIds.size(), booksInScope, libraryEntity.getName(), pending);
+            notificationService.sendMessage(Topic.LOG, createLogNotification("Removal of " + pending + " books in library "
+                    + libraryEntity.getName() + " needs confirmation"));
+            return Set.of();
+        }
+        return bookIds;
+    }
+
+    public Optional<PendingRemoval> getPendingRemoval(long libraryId) {
+        return toPendingRemoval(libraryId, pendingBookRemovalRepository.findByLibraryId(libraryId));
+    }
+
+    public Optional<PendingRemoval> takePendingRemoval(long libraryId) {
+        return transaction.execute(status -> {
+            List<PendingBookRemovalEntity> entities = pendingBookRemovalRepository.findByLibraryId(libraryId);
+            pendingBookRemovalRepository.deleteByLibraryId(libraryId);
+            return toPendingRemoval(libraryId, entities);
+        });
+    }
+
+    private int defer(long libraryId, Set<Long> bookIds, int booksInScope) {
+        Instant now = Instant.now();
+        return transaction.execute(status -> {
+            List<PendingBookRemovalEntity> existing = pendingBookRemovalRepository.findByLibraryId(libraryId);
+            Set<Long> pendingBookIds = existing.stream().map(PendingBookRemovalEntity::getBookId).collect(Collectors.toSet());
+            List<PendingBookRemovalEntity> added = bookIds.stream()
+                    .filter(bookId -> !pendingBookIds.contains(bookId))
+                    .map(bookId -> PendingBookRemovalEntity.builder()
+                            .libraryId(libraryId)
+                            .bookId(bookId)
+                            .booksInScope(booksInScope)
+                            .detectedOn(now)
+                            .build())
+                    .toList();
+            pendingBookRemovalRepository.saveAll(added);
+            return pendingBookIds.size() + added.size();
+        });
+    }
+
+    private Optional<PendingRemoval> toPendingRemoval(long libraryId, List<PendingBookRemovalEntity> entities) {
+        if (entities.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(PendingRemoval.builder()
+                .libraryId(libraryId)
+                .libraryName(libraryRepository.findById(libraryId).map(LibraryEntity::getName).orElse(null))
+                .bookIds(entities.stream().map(PendingBookRemovalEntity::getBookId).collect(Collectors.toSet()))
+                .booksInScope(entities.stream().mapToInt(PendingBookRemovalEntity::getBooksInScope).max().orElse(0))
+                .detectedAt(entities.stream().map(PendingBookRemovalEntity::getDetectedOn).min(Comparator.naturalOrder()).orElse(null))
+                .build());
+    }
+}
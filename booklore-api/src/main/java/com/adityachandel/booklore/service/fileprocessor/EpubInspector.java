@@ -0,0 +1,199 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import net.openhft.hashing.LongHashFunction;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+@Component
+public class EpubInspector {
+
+    private static final String CONTAINER_PATH = "META-INF/container.xml";
+    private static final int MAX_COVER_SIZE = 32 * 1024 * 1024;
+
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(EpubInspector::createDocumentBuilder);
+
+    public EpubPackage inspect(Path epubPath, boolean withCover) throws IOException {
+        try (ZipFile zipFile = new ZipFile(epubPath.toFile())) {
+            String opfPath = findOpfPath(zipFile);
+            Element metadata = readMetadata(zipFile, opfPath);
+            ZipEntry coverEntry = findCoverEntry(zipFile, opfPath, metadata);
+            EpubPackage.EpubPackageBuilder epubPackage = EpubPackage.builder()
+                    .metadataHash(entryHash(zipFile.getEntry(opfPath)))
+                    .coverHash(entryHash(coverEntry))
+                    .title(firstText(metadata, "title"))
+                    .description(firstText(metadata, "description"))
+                    .publisher(firstText(metadata, "publisher"))
+                    .identifiers(allText(metadata, "identifier"))
+                    .language(firstText(metadata, "language"))
+                    .date(firstText(metadata, "date"))
+                    .authors(new LinkedHashSet<>(allText(metadata, "creator")))
+                    .subjects(allText(metadata, "subject"));
+            if (withCover) {
+                epubPackage.cover(readCover(zipFile, coverEntry));
+            }
+            return epubPackage.build();
+        }
+    }
+
+    public RegionHashes hashRegions(Path epubPath) throws IOException {
+        try (ZipFile zipFile = new ZipFile(epubPath.toFile())) {
+            String opfPath = findOpfPath(zipFile);
+            Element metadata = readMetadata(zipFile, opfPath);
+            return new RegionHashes(entryHash(zipFile.getEntry(opfPath)), entryHash(findCoverEntry(zipFile, opfPath, metadata)));
+        }
+    }
+
+    private Element readMetadata(ZipFile zipFile, String opfPath) throws IOException {
+        Element metadata = firstElement(parse(zipFile, opfPath).getDocumentElement(), "metadata");
+        if (metadata == null) {
+            throw new IOException("No metadata element in " + opfPath);
+        }
+        return metadata;
+    }
+
+    private String findOpfPath(ZipFile zipFile) throws IOException {
+        Element rootfile = firstElement(parse(zipFile, CONTAINER_PATH).getDocumentElement(), "rootfile");
+        if (rootfile == null || rootfile.getAttribute("full-path").isBlank()) {
+            throw new IOException("No rootfile declared in " + CONTAINER_PATH);
+        }
+        return rootfile.getAttribute("full-path");
+    }
+
+    private ZipEntry findCoverEntry(ZipFile zipFile, String opfPath, Element metadata) {
+        Element manifest = firstElement(metadata.getOwnerDocument().getDocumentElement(), "manifest");
+        if (manifest == null) {
+            return null;
+        }
+        String coverHref = findCoverHref(manifest, metadata);
+        return coverHref != null ? zipFile.getEntry(resolve(opfPath, coverHref)) : null;
+    }
+
+    private byte[] readCover(ZipFile zipFile, ZipEntry entry) throws IOException {
+        if (entry == null || entry.getSize() > MAX_COVER_SIZE) {
+            return null;
+        }
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return inputStream.readNBytes(MAX_COVER_SIZE);
+        }
+    }
+
+    private static Long entryHash(ZipEntry entry) {
+        return entry != null ? LongHashFunction.xx3(entry.getSize()).hashLong(entry.getCrc()) : null;
+    }
+
+    private String findCoverHref(Element manifest, Element metadata) {
+        List<Element> images = new ArrayList<>();
+        NodeList items = manifest.getElementsByTagNameNS("*", "item");
+        for (int i = 0; i < items.getLength(); i++) {
+            Element item = (Element) items.item(i);
+            if (item.getAttribute("media-type").startsWith("image/")) {
+                images.add(item);
+            }
+        }
+        for (Element image : images) {
+            if (Arrays.asList(image.getAttribute("properties").split("\\s+")).contains("cover-image")) {
+                return image.getAttribute("href");
+            }
+        }
+        NodeList metas = metadata.getElementsByTagNameNS("*", "meta");
+        for (int i = 0; i < metas.getLength(); i++) {
+            Element meta = (Element) metas.item(i);
+            if ("cover".equals(meta.getAttribute("name"))) {
+                String coverId = meta.getAttribute("content");
+                for (Element image : images) {
+                    if (coverId.equals(image.getAttribute("id"))) {
+                        return image.getAttribute("href");
+                    }
+                }
+            }
+        }
+        for (Element image : images) {
+            if (image.getAttribute("id").toLowerCase().contains("cover") || image.getAttribute("href").toLowerCase().contains("cover")) {
+                return image.getAttribute("href");
+            }
+        }
+        return null;
+    }
+
+    private String resolve(String opfPath, String href) {
+        Deque<String> segments = new ArrayDeque<>();
+        int lastSlash = opfPath.lastIndexOf('/');
+        String decodedHref = URLDecoder.decode(href.replace("+", "%2B"), StandardCharsets.UTF_8);
+        String combined = (lastSlash >= 0 ? opfPath.substring(0, lastSlash + 1) : "") + decodedHref;
+        for (String segment : combined.split("/")) {
+            if (segment.equals("..")) {
+                segments.pollLast();
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.addLast(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private Document parse(ZipFile zipFile, String entryName) throws IOException {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("Missing " + entryName);
+        }
+        DocumentBuilder documentBuilder = documentBuilders.get();
+        documentBuilder.reset();
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return documentBuilder.parse(inputStream);
+        } catch (SAXException e) {
+            throw new IOException("Malformed " + entryName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Element firstElement(Element parent, String localName) {
+        NodeList nodes = parent.getElementsByTagNameNS("*", localName);
+        return nodes.getLength() > 0 ? (Element) nodes.item(0) : null;
+    }
+
+    private static String firstText(Element parent, String localName) {
+        List<String> values = allText(parent, localName);
+        return values.isEmpty() ? null : values.getFirst();
+    }
+
+    private static List<String> allText(Element parent, String localName) {
+        List<String> values = new ArrayList<>();
+        NodeList nodes = parent.getElementsByTagNameNS("*", localName);
+        for (int i = 0; i < nodes.getLength(); i++) {
+            String value = nodes.item(i).getTextContent().trim();
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setExpandEntityReferences(false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Unable to configure XML parser", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Builder
+public class EpubPackage {
+    private String title;
+    private String description;
+    private String publisher;
+    private List<String> identifiers;
+    private String language;
+    private String date;
+    private Set<String> authors;
+    private List<String> subjects;
+    private byte[] cover;
+    private Long metadataHash;
+    private Long coverHash;
+}
@@ -4,7 +4,6 @@ import com.adityachandel.booklore.mapper.BookMapper;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.entity.BookEntity;
-import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.BookCreatorService;
@@ -23,8 +22,8 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
@@ -32,6 +31,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
 
 @Slf4j
 @Service
@@ -42,6 +42,7 @@ public class EpubProcessor implements FileProcessor {
     private final BookCreatorService bookCreatorService;
     private final BookMapper bookMapper;
     private final FileProcessingUtils fileProcessingUtils;
+    private final EpubInspector epubInspector;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
@@ -60,31 +61,76 @@ public class EpubProcessor implements FileProcessor {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     protected Book processNewFile(LibraryFile libraryFile) {
-        BookEntity bookEntity = bookCreatorService.createShellBook(libraryFile, BookFileType.EPUB);
+        ParsedBook parsedBook = null;
         try {
-            io.documentnode.epub4j.domain.Book epub = new EpubReader().readEpub(new FileInputStream(FileUtils.getBookFullPath(bookEntity)));
+            parsedBook = parse(libraryFile, true);
+        } catch (Exception e) {
+            log.error("Error while processing file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+        }
+        return bookCreatorService.createBook(libraryFile, BookFileType.EPUB, parsedBook);
+    }
 
-            setBookMetadata(epub, bookEntity);
-            processCover(epub, bookEntity);
+    @Override
+    public ParsedBook parseFile(LibraryFile libraryFile) throws IOException {
+        return parse(libraryFile, false);
+    }
 
-            bookCreatorService.saveConnections(bookEntity);
-            bookRepository.save(bookEntity);
-            bookRepository.flush();
+    @Override
+    public BufferedImage generateCover(LibraryFile libraryFile) throws IOException {
+        return processCover(readPackage(libraryFile, true));
+    }
 
-        } catch (Exception e) {
-            log.error("Error while processing file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+    @Override
+    public RegionHashes hashRegions(LibraryFile libraryFile) throws IOException {
+        return epubInspector.hashRegions(Path.of(FileUtils.getFileFullPath(libraryFile)));
+    }
+
+    private ParsedBook parse(LibraryFile libraryFile, boolean withCover) throws IOException {
+        EpubPackage epubPackage = readPackage(libraryFile, withCover);
+        ParsedBook.ParsedBookBuilder parsedBook = ParsedBook.builder()
+                .metadataHash(epubPackage.getMetadataHash())
+                .coverHash(epubPackage.getCoverHash());
+        setBookMetadata(epubPackage, parsedBook);
+        if (withCover) {
+            parsedBook.cover(processCover(epubPackage));
         }
-        return bookMapper.toBook(bookEntity);
+        return parsedBook.build();
     }
 
-    private void processCover(io.documentnode.epub4j.domain.Book epub, BookEntity bookEntity) throws IOException {
-        Resource coverImage = epub.getCoverImage();
-        if (coverImage != null) {
-            boolean success = saveCoverImage(coverImage, bookEntity.getId());
-            if (success) {
-                fileProcessingUtils.setBookCoverPath(bookEntity.getId(), bookEntity.getMetadata());
-            }
+    private EpubPackage readPackage(LibraryFile libraryFile, boolean withCover) throws IOException {
+        String filePath = FileUtils.getFileFullPath(libraryFile);
+        try {
+            return epubInspector.inspect(Path.of(filePath), withCover);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Falling back to full EPUB read for {}: {}", libraryFile.getFileName(), e.getMessage());
         }
+        try (ZipFile zipFile = new ZipFile(filePath)) {
+            return toEpubPackage(new EpubReader().readEpubLazy(zipFile, "UTF-8"), withCover);
+        }
+    }
+
+    private EpubPackage toEpubPackage(io.documentnode.epub4j.domain.Book epub, boolean withCover) throws IOException {
+        Metadata epubMetadata = epub.getMetadata();
+        Resource coverImage = withCover ? epub.getCoverImage() : null;
+        return EpubPackage.builder()
+                .title(epubMetadata.getFirstTitle())
+                .description(epubMetadata.getDescriptions().isEmpty() ? null : epubMetadata.getDescriptions().getFirst())
+                .publisher(epubMetadata.getPublishers().isEmpty() ? null : epubMetadata.getPublishers().getFirst())
+                .identifiers(epubMetadata.getIdentifiers().stream().map(Identifier::getValue).toList())
+                .language(epubMetadata.getLanguage())
+                .date(epubMetadata.getDates().isEmpty() ? null : epubMetadata.getDates().getFirst().getValue())
+                .authors(getAuthors(epub))
+                .subjects(epubMetadata.getSubjects())
+                .cover(coverImage != null ? coverImage.getData() : null)
+                .build();
+    }
+
+    private BufferedImage processCover(EpubPackage epubPackage) throws IOException {
+        if (epubPackage.getCover() == null) {
+            return null;
+        }
+        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(epubPackage.getCover()));
+        return originalImage != null ? fileProcessingUtils.createThumbnail(originalImage) : null;
     }
 
     private static Set<String> getAuthors(io.documentnode.epub4j.domain.Book book) {
@@ -93,58 +139,34 @@ public class EpubProcessor implements FileProcessor {
                 .collect(Collectors.toSet());
     }
 
-    private void setBookMetadata(io.documentnode.epub4j.domain.Book book, BookEntity bookEntity) {
-        BookMetadataEntity bookMetadata = bookEntity.getMetadata();
-        Metadata epubMetadata = book.getMetadata();
-
-        if (epubMetadata != null) {
-            bookMetadata.setTitle(epubMetadata.getFirstTitle());
-
-            if (epubMetadata.getDescriptions() != null && !epubMetadata.getDescriptions().isEmpty()) {
-                bookMetadata.setDescription(epubMetadata.getDescriptions().getFirst());
-            }
+    private void setBookMetadata(EpubPackage epubPackage, ParsedBook.ParsedBookBuilder parsedBook) {
+        parsedBook.title(epubPackage.getTitle());
+        parsedBook.description(epubPackage.getDescription());
+        parsedBook.publisher(epubPackage.getPublisher());
+
+        List<String> identifiers = epubPackage.getIdentifiers();
+        if (identifiers != null && !identifiers.isEmpty()) {
+            String isbn13 = identifiers.stream().filter(id -> id.length() == 13).findFirst().orElse(null);
+            String isbn10 = identifiers.stream().filter(id -> id.length() == 10).findFirst().orElse(null);
+            parsedBook.isbn13(isbn13);
+            parsedBook.isbn10(isbn10);
+        }
 
-            if (epubMetadata.getPublishers() != null && !epubMetadata.getPublishers().isEmpty()) {
-                bookMetadata.setPublisher(epubMetadata.getPublishers().getFirst());
-            }
+        parsedBook.language(epubPackage.getLanguage() == null || epubPackage.getLanguage().equalsIgnoreCase("UND") ? "en" : epubPackage.getLanguage());
 
-            List<String> identifiers = epubMetadata.getIdentifiers().stream()
-                    .map(Identifier::getValue)
-                    .toList();
-            if (!identifiers.isEmpty()) {
-                String isbn13 = identifiers.stream().filter(id -> id.length() == 13).findFirst().orElse(null);
-                String isbn10 = identifiers.stream().filter(id -> id.length() == 10).findFirst().orElse(null);
-                bookMetadata.setIsbn13(isbn13);
-                bookMetadata.setIsbn10(isbn10);
+        String dateString = epubPackage.getDate();
+        if (dateString != null) {
+            if (isValidLocalDate(dateString)) {
+                parsedBook.publishedDate(LocalDate.parse(dateString));
+            } else if (isValidOffsetDateTime(dateString)) {
+                parsedBook.publishedDate(OffsetDateTime.parse(dateString).toLocalDate());
+            } else {
+                log.error("Unable to parse date: {}", dateString);
             }
-
-            bookMetadata.setLanguage(epubMetadata.getLanguage() == null || epubMetadata.getLanguage().equalsIgnoreCase("UND") ? "en" : epubMetadata.getLanguage());
-
-            if (epubMetadata.getDates() != null && !epubMetadata.getDates().isEmpty()) {
-                epubMetadata.getDates().stream()
-                        .findFirst()
-                        .ifPresent(publishedDate -> {
-                            String dateString = publishedDate.getValue();
-                            if (isValidLocalDate(dateString)) {
-                                LocalDate parsedDate = LocalDate.parse(dateString);
-                                bookMetadata.setPublishedDate(parsedDate);
-                            } else if (isValidOffsetDateTime(dateString)) {
-                                OffsetDateTime offsetDateTime = OffsetDateTime.parse(dateString);
-                                bookMetadata.setPublishedDate(offsetDateTime.toLocalDate());
-                            } else {
-                                log.error("Unable to parse date: {}", dateString);
-                            }
-                        });
-            }
-
-            bookCreatorService.addAuthorsToBook(getAuthors(book), bookEntity);
-            bookCreatorService.addCategoriesToBook(epubMetadata.getSubjects(), bookEntity);
         }
-    }
 
-    private boolean saveCoverImage(Resource coverImage, long bookId) throws IOException {
-        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(coverImage.getData()));
-        return fileProcessingUtils.saveCoverImage(originalImage, bookId);
+        parsedBook.authors(epubPackage.getAuthors());
+        parsedBook.categories(epubPackage.getSubjects());
     }
 
     private boolean isValidLocalDate(String dateString) {
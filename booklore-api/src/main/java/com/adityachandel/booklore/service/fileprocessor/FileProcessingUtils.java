@@ -25,6 +25,9 @@ import java.util.stream.Stream;
 @Slf4j
 public class FileProcessingUtils {
 
+    public static final int THUMBNAIL_WIDTH = 250;
+    public static final int THUMBNAIL_HEIGHT = 350;
+
     private final AppProperties appProperties;
 
     public void setBookCoverPath(long bookId, BookMetadataEntity bookMetadataEntity) {
@@ -33,8 +36,15 @@ public class FileProcessingUtils {
     }
 
     public boolean saveCoverImage(BufferedImage coverImage, long bookId) throws IOException {
+        return saveThumbnail(createThumbnail(coverImage), bookId);
+    }
+
+    public BufferedImage createThumbnail(BufferedImage coverImage) {
+        return resizeImage(coverImage, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+    }
+
+    public boolean saveThumbnail(BufferedImage thumbnail, long bookId) throws IOException {
         File coverDirectory = new File(appProperties.getPathConfig() + "/thumbs");
-        BufferedImage resizedImage = resizeImage(coverImage, 250, 350);
         File bookDirectory = new File(coverDirectory, String.valueOf(bookId));
         if (!bookDirectory.exists()) {
             if (!bookDirectory.mkdirs()) {
@@ -43,7 +53,7 @@ public class FileProcessingUtils {
         }
         String coverImageName = "f.jpg";
         File coverImageFile = new File(bookDirectory, coverImageName);
-        return ImageIO.write(resizedImage, "JPEG", coverImageFile);
+        return ImageIO.write(thumbnail, "JPEG", coverImageFile);
     }
 
     public BufferedImage resizeImage(BufferedImage originalImage, int width, int height) {
@@ -3,6 +3,15 @@ package com.adityachandel.booklore.service.fileprocessor;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.dto.Book;
 
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
 public interface FileProcessor {
     Book processFile(LibraryFile libraryFile, boolean forceProcess);
+
+    ParsedBook parseFile(LibraryFile libraryFile) throws IOException;
+
+    BufferedImage generateCover(LibraryFile libraryFile) throws IOException;
+
+    RegionHashes hashRegions(LibraryFile libraryFile) throws IOException;
 }
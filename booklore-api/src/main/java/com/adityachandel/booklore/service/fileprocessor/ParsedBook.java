@@ -0,0 +1,26 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Builder
+public class ParsedBook {
+    private String title;
+    private String description;
+    private String publisher;
+    private LocalDate publishedDate;
+    private String isbn13;
+    private String isbn10;
+    private String language;
+    private Set<String> authors;
+    private List<String> categories;
+    private BufferedImage cover;
+    private Long metadataHash;
+    private Long coverHash;
+}
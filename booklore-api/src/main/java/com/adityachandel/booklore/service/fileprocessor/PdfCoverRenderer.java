@@ -0,0 +1,72 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+@Slf4j
+@Component
+public class PdfCoverRenderer {
+
+    private static final double MAX_ASPECT_RATIO_DEVIATION = 0.15;
+
+    public BufferedImage renderCover(PDDocument document, int targetWidth, int targetHeight) throws IOException {
+        BufferedImage embeddedCover = extractEmbeddedCover(document, targetWidth, targetHeight);
+        return embeddedCover != null ? embeddedCover : renderToTarget(document, targetWidth, targetHeight);
+    }
+
+    public BufferedImage renderToTarget(PDDocument document, int targetWidth, int targetHeight) throws IOException {
+        PDRectangle cropBox = document.getPage(0).getCropBox();
+        float scale = Math.max(targetWidth / cropBox.getWidth(), targetHeight / cropBox.getHeight());
+        PDFRenderer renderer = new PDFRenderer(document);
+        renderer.setSubsamplingAllowed(true);
+        return renderer.renderImage(0, scale, ImageType.RGB);
+    }
+
+    public BufferedImage extractEmbeddedCover(PDDocument document, int targetWidth, int targetHeight) throws IOException {
+        PDPage page = document.getPage(0);
+        PDResources resources = page.getResources();
+        if (resources == null || page.getRotation() != 0) {
+            return null;
+        }
+        PDImageXObject largest = null;
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xObject = resources.getXObject(name);
+            if (xObject instanceof PDImageXObject image && (largest == null || pixelCount(image) > pixelCount(largest))) {
+                largest = image;
+            }
+        }
+        if (largest == null || largest.getWidth() < targetWidth || largest.getHeight() < targetHeight || !matchesPageShape(largest, page)) {
+            return null;
+        }
+        int subsampling = Math.max(1, Math.min(largest.getWidth() / targetWidth, largest.getHeight() / targetHeight));
+        try {
+            return largest.getImage(null, subsampling);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to decode embedded cover image, falling back to rendering: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean matchesPageShape(PDImageXObject image, PDPage page) {
+        PDRectangle cropBox = page.getCropBox();
+        double pageRatio = cropBox.getWidth() / cropBox.getHeight();
+        double imageRatio = (double) image.getWidth() / image.getHeight();
+        return Math.abs(imageRatio - pageRatio) / pageRatio <= MAX_ASPECT_RATIO_DEVIATION;
+    }
+
+    private static long pixelCount(PDImageXObject image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+}
@@ -0,0 +1,95 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.config.PdfLoadingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PdfDocumentLoader {
+
+    private static final String LOAD_METRIC = "booklore.pdf.load";
+    private static final String SCRATCH_LIMIT_MESSAGE = "Maximum allowed scratch file memory exceeded";
+
+    private final PdfLoadingProperties properties;
+    private final IngestionProperties ingestionProperties;
+    private final MeterRegistry meterRegistry;
+
+    public PDDocument load(File file) throws IOException {
+        long fileSize = file.length();
+        boolean memoryMapped = useMemoryMapping(fileSize);
+        ScratchMode scratchMode = scratchModeFor(fileSize);
+        RandomAccessRead source = memoryMapped ? new RandomAccessReadMemoryMappedFile(file) : new RandomAccessReadBufferedFile(file);
+        try {
+            PDDocument document = Loader.loadPDF(source, "", null, null, streamCacheFor(scratchMode));
+            meterRegistry.counter(LOAD_METRIC, "source", memoryMapped ? "mmap" : "file", "scratch", scratchMode.tag).increment();
+            log.debug("Loaded {} ({} bytes) with {} source and {} scratch", file.getName(), fileSize, memoryMapped ? "mmap" : "file", scratchMode.tag);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    private boolean useMemoryMapping(long fileSize) {
+        return properties.isMemoryMappedEnabled()
+                && fileSize >= properties.getMemoryMappedThreshold().toBytes()
+                && fileSize <= Integer.MAX_VALUE;
+    }
+
+    private ScratchMode scratchModeFor(long fileSize) {
+        if (fileSize >= properties.getTempFileThreshold().toBytes()) {
+            return ScratchMode.TEMP_FILE;
+        }
+        if (fileSize >= properties.getMixedThreshold().toBytes()) {
+            return ScratchMode.MIXED;
+        }
+        return ScratchMode.MEMORY;
+    }
+
+    private StreamCacheCreateFunction streamCacheFor(ScratchMode scratchMode) {
+        long scratchBudget = ingestionProperties.getFileMemoryBudget().toBytes();
+        MemoryUsageSetting memoryUsageSetting = switch (scratchMode) {
+            case MEMORY -> MemoryUsageSetting.setupMainMemoryOnly(scratchBudget);
+            case MIXED -> MemoryUsageSetting.setupMixed(properties.getMaxMainMemory().toBytes(), scratchBudget);
+            case TEMP_FILE -> MemoryUsageSetting.setupTempFileOnly(scratchBudget);
+        };
+        if (scratchMode != ScratchMode.MEMORY && properties.getScratchDirectory() != null) {
+            memoryUsageSetting.setTempDir(new File(properties.getScratchDirectory()));
+        }
+        return memoryUsageSetting.streamCache;
+    }
+
+    public static boolean isScratchLimitExceeded(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException && cause.getMessage() != null && cause.getMessage().startsWith(SCRATCH_LIMIT_MESSAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum ScratchMode {
+        MEMORY("memory"), MIXED("mixed"), TEMP_FILE("temp-file");
+
+        private final String tag;
+
+        ScratchMode(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -10,10 +10,9 @@ import com.adityachandel.booklore.service.BookCreatorService;
 import com.adityachandel.booklore.util.FileUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
+import net.openhft.hashing.LongHashFunction;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.pdmodel.common.PDMetadata;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
@@ -36,6 +36,8 @@ public class PdfProcessor implements FileProcessor {
     private final BookCreatorService bookCreatorService;
     private final BookMapper bookMapper;
     private final FileProcessingUtils fileProcessingUtils;
+    private final PdfCoverRenderer pdfCoverRenderer;
+    private final PdfDocumentLoader pdfDocumentLoader;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
@@ -54,38 +56,57 @@ public class PdfProcessor implements FileProcessor {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     protected Book processNewFile(LibraryFile libraryFile) {
-        BookEntity bookEntity = bookCreatorService.createShellBook(libraryFile, BookFileType.PDF);
-        try (PDDocument pdf = Loader.loadPDF(new File(FileUtils.getBookFullPath(bookEntity)))) {
-
-            setMetadata(pdf, bookEntity);
-            processCover(pdf, bookEntity);
-
-            bookCreatorService.saveConnections(bookEntity);
-            bookEntity = bookRepository.save(bookEntity);
-            bookRepository.flush();
+        ParsedBook parsedBook = null;
+        try {
+            parsedBook = parse(libraryFile, true);
         } catch (Exception e) {
             log.error("Error while processing file {}, error: {}", libraryFile.getFileName(), e.getMessage());
         }
-        return bookMapper.toBook(bookEntity);
+        return bookCreatorService.createBook(libraryFile, BookFileType.PDF, parsedBook);
+    }
+
+    @Override
+    public ParsedBook parseFile(LibraryFile libraryFile) throws IOException {
+        return parse(libraryFile, false);
+    }
+
+    @Override
+    public BufferedImage generateCover(LibraryFile libraryFile) throws IOException {
+        try (PDDocument pdf = pdfDocumentLoader.load(new File(FileUtils.getFileFullPath(libraryFile)))) {
+            return generateCoverImage(pdf);
+        }
     }
 
-    private void processCover(PDDocument document, BookEntity bookEntity) throws IOException {
-        boolean success = generateCoverImageAndSave(bookEntity.getId(), document);
-        if (success) {
-            fileProcessingUtils.setBookCoverPath(bookEntity.getId(), bookEntity.getMetadata());
+    @Override
+    public RegionHashes hashRegions(LibraryFile libraryFile) throws IOException {
+        try (PDDocument pdf = pdfDocumentLoader.load(new File(FileUtils.getFileFullPath(libraryFile)))) {
+            return hashRegions(pdf);
         }
     }
 
-    private void setMetadata(PDDocument document, BookEntity bookEntity) {
+    private ParsedBook parse(LibraryFile libraryFile, boolean withCover) throws IOException {
+        try (PDDocument pdf = pdfDocumentLoader.load(new File(FileUtils.getFileFullPath(libraryFile)))) {
+            RegionHashes regionHashes = hashRegions(pdf);
+            ParsedBook.ParsedBookBuilder parsedBook = ParsedBook.builder()
+                    .metadataHash(regionHashes.metadataHash())
+                    .coverHash(regionHashes.coverHash());
+            setMetadata(pdf, parsedBook);
+            if (withCover) {
+                parsedBook.cover(generateCoverImage(pdf));
+            }
+            return parsedBook.build();
+        }
+    }
+
+    private void setMetadata(PDDocument document, ParsedBook.ParsedBookBuilder parsedBook) {
         if (document.getDocumentInformation() == null) {
             log.warn("No document information found");
         } else {
             if (document.getDocumentInformation().getTitle() != null) {
-                bookEntity.getMetadata().setTitle(document.getDocumentInformation().getTitle());
+                parsedBook.title(document.getDocumentInformation().getTitle());
             }
             if (document.getDocumentInformation().getAuthor() != null) {
-                Set<String> authors = getAuthors(document);
-                bookCreatorService.addAuthorsToBook(authors, bookEntity);
+                parsedBook.authors(getAuthors(document));
             }
         }
     }
@@ -103,8 +124,25 @@ public class PdfProcessor implements FileProcessor {
         return authorNames.stream().map(String::trim).collect(Collectors.toSet());
     }
 
-    private boolean generateCoverImageAndSave(Long bookId, PDDocument document) throws IOException {
-        BufferedImage coverImage = new PDFRenderer(document).renderImageWithDPI(0, 300, ImageType.RGB);
-        return fileProcessingUtils.saveCoverImage(coverImage, bookId);
+    private RegionHashes hashRegions(PDDocument document) throws IOException {
+        long metadataHash = document.getDocumentInformation() != null
+                ? LongHashFunction.xx3().hashChars(document.getDocumentInformation().getCOSObject().toString())
+                : 0;
+        PDMetadata xmp = document.getDocumentCatalog().getMetadata();
+        if (xmp != null) {
+            metadataHash = LongHashFunction.xx3(metadataHash).hashBytes(xmp.toByteArray());
+        }
+        Long coverHash = null;
+        if (document.getNumberOfPages() > 0) {
+            try (InputStream contents = document.getPage(0).getContents()) {
+                coverHash = LongHashFunction.xx3().hashBytes(contents.readAllBytes());
+            }
+        }
+        return new RegionHashes(metadataHash, coverHash);
+    }
+
+    private BufferedImage generateCoverImage(PDDocument document) throws IOException {
+        BufferedImage coverImage = pdfCoverRenderer.renderCover(document, FileProcessingUtils.THUMBNAIL_WIDTH, FileProcessingUtils.THUMBNAIL_HEIGHT);
+        return fileProcessingUtils.createThumbnail(coverImage);
     }
 }
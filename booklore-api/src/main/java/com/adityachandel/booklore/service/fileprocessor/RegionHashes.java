@@ -0,0 +1,4 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+public record RegionHashes(Long metadataHash, Long coverHash) {
+}
@@ -0,0 +1,166 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.enums.QuarantineReason;
+import com.adityachandel.booklore.service.fileprocessor.PdfDocumentLoader;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+
+@Slf4j
+public class BudgetedTaskPool {
+
+    private static final long BUDGET_POLL_MILLIS = 250;
+
+    private final String name;
+    private final ThreadFactory threadFactory;
+    private final Semaphore slots;
+    private final Duration timeout;
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> abandoned = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    public BudgetedTaskPool(String name, int threads, int priority, Duration timeout) {
+        this.name = name;
+        this.threadFactory = Thread.ofPlatform().name(name + "-", 0).daemon(true).priority(priority).factory();
+        this.slots = new Semaphore(threads);
+        this.timeout = timeout;
+    }
+
+    public <T> BudgetedTask<T> submit(Callable<T> callable) {
+        return submit(callable, () -> {
+        });
+    }
+
+    public <T> BudgetedTask<T> submit(Callable<T> callable, Runnable onFinish) {
+        if (shutdown) {
+            throw new RejectedExecutionException(name + " pool is shut down");
+        }
+        BudgetedTask<T> task = new BudgetedTask<>(callable, onFinish);
+        threadFactory.newThread(task.future).start();
+        return task;
+    }
+
+    public int getAbandoned() {
+        abandoned.removeIf(thread -> !thread.isAlive());
+        return abandoned.size();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        running.forEach(Thread::interrupt);
+        abandoned.forEach(Thread::interrupt);
+    }
+
+    private static boolean isMemoryLimit(Throwable cause) {
+        return cause instanceof OutOfMemoryError || PdfDocumentLoader.isScratchLimitExceeded(cause);
+    }
+
+    public final class BudgetedTask<T> {
+
+        private final FutureTask<T> future;
+        private final Runnable onFinish;
+        private volatile Thread runner;
+        private volatile long startNanos;
+        private boolean slotHeld;
+        private boolean finished;
+
+        private BudgetedTask(Callable<T> callable, Runnable onFinish) {
+            this.onFinish = onFinish;
+            this.future = new FutureTask<>(() -> {
+                running.add(Thread.currentThread());
+                try {
+                    slots.acquire();
+                    if (!takeSlot()) {
+                        throw new CancellationException("Task was abandoned before it started");
+                    }
+                    runner = Thread.currentThread();
+                    startNanos = System.nanoTime();
+                    return callable.call();
+                } finally {
+                    runner = null;
+                    running.remove(Thread.currentThread());
+                    finish();
+                }
+            });
+        }
+
+        public T await() throws InterruptedException, ExecutionException, BudgetExceededException {
+            long timeoutMillis = timeout.toMillis();
+            while (true) {
+                try {
+                    return future.get(BUDGET_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    long elapsedMillis = getElapsedMillis();
+                    if (startNanos != 0 && elapsedMillis > timeoutMillis) {
+                        abandon();
+                        throw new BudgetExceededException(QuarantineReason.TIMEOUT, "did not finish within " + timeoutMillis + " ms", elapsedMillis);
+                    }
+                } catch (ExecutionException e) {
+                    if (isMemoryLimit(e.getCause())) {
+                        throw new BudgetExceededException(QuarantineReason.MEMORY_LIMIT, "exceeded its memory budget: " + e.getCause().getMessage(), getElapsedMillis());
+                    }
+                    throw e;
+                } catch (InterruptedException e) {
+                    future.cancel(true);
+                    finish();
+                    throw e;
+                }
+            }
+        }
+
+        private long getElapsedMillis() {
+            long started = startNanos;
+            return started != 0 ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) : 0;
+        }
+
+        private void abandon() {
+            Thread thread = runner;
+            future.cancel(true);
+            finish();
+            if (thread != null && thread.isAlive()) {
+                abandoned.add(thread);
+                log.warn("Abandoned stuck {} thread {}, {} abandoned threads still alive", name, thread.getName(), getAbandoned());
+            }
+        }
+
+        private synchronized boolean takeSlot() {
+            if (finished) {
+                slots.release();
+                return false;
+            }
+            slotHeld = true;
+            return true;
+        }
+
+        private void finish() {
+            boolean releaseSlot;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                releaseSlot = slotHeld;
+            }
+            if (releaseSlot) {
+                slots.release();
+            }
+            onFinish.run();
+        }
+    }
+
+    @Getter
+    public static class BudgetExceededException extends Exception {
+
+        private final QuarantineReason reason;
+        private final long elapsedMillis;
+
+        public BudgetExceededException(QuarantineReason reason, String message, long elapsedMillis) {
+            super(message);
+            this.reason = reason;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.BookCreatorService;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.QuarantineService;
+import com.adityachandel.booklore.service.fileprocessor.EpubProcessor;
+import com.adityachandel.booklore.service.fileprocessor.FileProcessor;
+import com.adityachandel.booklore.service.fileprocessor.PdfProcessor;
+import com.adityachandel.booklore.util.FileUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CoverGenerationQueue {
+
+    private final IngestionProperties ingestionProperties;
+    private final BookCreatorService bookCreatorService;
+    private final NotificationService notificationService;
+    private final PdfProcessor pdfProcessor;
+    private final EpubProcessor epubProcessor;
+    private final QuarantineService quarantineService;
+    private final BookRepository bookRepository;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private Semaphore queuePermits;
+    private ExecutorService coverExecutor;
+    private BudgetedTaskPool coverPool;
+
+    @PostConstruct
+    public void start() {
+        queuePermits = new Semaphore(Math.max(1, ingestionProperties.getCoverQueueCapacity()));
+        coverExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cover-await-", 0).factory());
+        coverPool = new BudgetedTaskPool("cover", ingestionProperties.resolveCoverThreads(), Thread.NORM_PRIORITY - 1, ingestionProperties.getFileTimeout());
+    }
+
+    @PreDestroy
+    public void stop() {
+        coverExecutor.shutdownNow();
+        coverPool.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void regenerateMissingCovers() {
+        backfill("cover-backfill", bookRepository::findWithMissingCover);
+    }
+
+    public void regenerateMissingCovers(long libraryId) {
+        backfill("cover-backfill-" + libraryId, () -> bookRepository.findWithMissingCoverByLibraryId(libraryId));
+    }
+
+    private void backfill(String name, Supplier<List<BookEntity>> missingCovers) {
+        pending.incrementAndGet();
+        Thread.ofVirtual().name(name).start(() -> {
+            try {
+                enqueueMissingCovers(missingCovers.get());
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    public boolean enqueue(long bookId, LibraryFile libraryFile) {
+        if (!queued.add(bookId)) {
+            return true;
+        }
+        if (!queuePermits.tryAcquire()) {
+            queued.remove(bookId);
+            log.debug("Cover queue is full, leaving cover of book {} for the missing cover backfill", bookId);
+            return false;
+        }
+        submit(bookId, libraryFile);
+        return true;
+    }
+
+    private void enqueueAwaiting(long bookId, LibraryFile libraryFile) throws InterruptedException {
+        if (!queued.add(bookId)) {
+            return;
+        }
+        try {
+            queuePermits.acquire();
+        } catch (InterruptedException e) {
+            queued.remove(bookId);
+            throw e;
+        }
+        submit(bookId, libraryFile);
+    }
+
+    private void submit(long bookId, LibraryFile libraryFile) {
+        pending.incrementAndGet();
+        try {
+            coverExecutor.execute(() -> generate(bookId, libraryFile));
+        } catch (RejectedExecutionException e) {
+            finished(bookId);
+            log.warn("Cover generation for book {} rejected, executor is shut down", bookId);
+        }
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    private void generate(long bookId, LibraryFile libraryFile) {
+        try {
+            BufferedImage cover = coverPool.submit(() -> processorFor(libraryFile.getBookFileType()).generateCover(libraryFile)).await();
+            if (cover == null) {
+                return;
+            }
+            bookCreatorService.applyCover(bookId, cover)
+                    .ifPresent(book -> notificationService.sendMessage(Topic.BOOK_METADATA_UPDATE, book));
+        } catch (BudgetedTaskPool.BudgetExceededException e) {
+            quarantine(libraryFile, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Error while generating cover for file {}, error: {}", libraryFile.getFileName(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (Exception e) {
+            log.error("Error while generating cover for file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+        } finally {
+            finished(bookId);
+        }
+    }
+
+    private void finished(long bookId) {
+        pending.decrementAndGet();
+        queued.remove(bookId);
+        queuePermits.release();
+    }
+
+    private void enqueueMissingCovers(List<BookEntity> books) {
+        int enqueued = 0;
+        for (BookEntity book : books) {
+            LibraryFile libraryFile = LibraryFile.builder()
+                    .libraryEntity(book.getLibrary())
+                    .libraryPathEntity(book.getLibraryPath())
+                    .fileSubPath(book.getFileSubPath())
+                    .fileName(book.getFileName())
+                    .bookFileType(book.getBookType())
+                    .build();
+            if (Files.notExists(Path.of(FileUtils.getFileFullPath(libraryFile))) || quarantineService.isQuarantined(libraryFile)) {
+                continue;
+            }
+            try {
+                enqueueAwaiting(book.getId(), libraryFile);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Missing cover backfill interrupted after {} books", enqueued);
+                return;
+            }
+            enqueued++;
+        }
+        if (enqueued > 0) {
+            log.info("Regenerating {} missing covers", enqueued);
+        }
+    }
+
+    private void quarantine(LibraryFile libraryFile, BudgetedTaskPool.BudgetExceededException e) {
+        try {
+            quarantineService.quarantine(libraryFile, e.getReason(), "Cover rendering " + e.getMessage(), e.getElapsedMillis());
+            notificationService.sendMessage(Topic.LOG, createLogNotification("File quarantined: " + libraryFile.getFileName() + " (" + e.getReason() + ")"));
+        } catch (Exception quarantineError) {
+            log.error("Error while quarantining file {}, error: {}", libraryFile.getFileName(), quarantineError.getMessage());
+        }
+    }
+
+    private FileProcessor processorFor(BookFileType bookFileType) {
+        return bookFileType == BookFileType.PDF ? pdfProcessor : epubProcessor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+@Component
+public class InFlightFileRegistry {
+
+    private final Map<Path, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public boolean tryClaim(Path path) {
+        return inFlight.putIfAbsent(key(path), new CompletableFuture<>()) == null;
+    }
+
+    public boolean claim(Path path) throws InterruptedException {
+        while (!tryClaim(path)) {
+            if (awaitRelease(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean awaitRelease(Path path) throws InterruptedException {
+        CompletableFuture<Void> pending = inFlight.get(key(path));
+        if (pending == null) {
+            return false;
+        }
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return true;
+    }
+
+    public void release(Path path) {
+        CompletableFuture<Void> pending = inFlight.remove(key(path));
+        if (pending != null) {
+            pending.complete(null);
+        }
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,13 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.enums.FileImportStatus;
+
+@FunctionalInterface
+public interface IngestionListener {
+
+    IngestionListener NONE = (libraryFile, status, bookId, message) -> {
+    };
+
+    void fileCompleted(LibraryFile libraryFile, FileImportStatus status, Long bookId, String message);
+}
@@ -0,0 +1,149 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.enums.FileImportStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IngestionStats {
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicInteger discovered = new AtomicInteger();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final ScanCheckpoint checkpoint;
+    private final IngestionListener listener;
+    private volatile int resumedCompleted;
+    private volatile boolean discoveryFinished;
+    private volatile long finishedAt;
+
+    public IngestionStats() {
+        this(new ScanCheckpoint(), IngestionListener.NONE);
+    }
+
+    public IngestionStats(IngestionListener listener) {
+        this(new ScanCheckpoint(), listener);
+    }
+
+    IngestionStats(ScanCheckpoint checkpoint) {
+        this(checkpoint, IngestionListener.NONE);
+    }
+
+    private IngestionStats(ScanCheckpoint checkpoint, IngestionListener listener) {
+        this.checkpoint = checkpoint;
+        this.listener = listener;
+    }
+
+    void restore(int processed, int skipped, int failed, long bytesRead) {
+        this.discovered.set(processed + skipped + failed);
+        this.processed.set(processed);
+        this.skipped.set(skipped);
+        this.failed.set(failed);
+        this.bytesRead.set(bytesRead);
+        resumedCompleted = processed + skipped + failed;
+    }
+
+    void fileDiscovered() {
+        discovered.incrementAndGet();
+    }
+
+    void fileProcessed(LibraryFile libraryFile, long bookId, FileImportStatus status) {
+        processed.incrementAndGet();
+        fileCompleted(libraryFile, status, bookId, null);
+    }
+
+    void fileSkipped(LibraryFile libraryFile) {
+        skipped.incrementAndGet();
+        fileCompleted(libraryFile, FileImportStatus.SKIPPED, null, null);
+    }
+
+    void fileFailed(LibraryFile libraryFile, Long bookId, String message) {
+        failed.incrementAndGet();
+        fileCompleted(libraryFile, FileImportStatus.FAILED, bookId, message);
+    }
+
+    private void fileCompleted(LibraryFile libraryFile, FileImportStatus status, Long bookId, String message) {
+        checkpoint.completed(libraryFile);
+        listener.fileCompleted(libraryFile, status, bookId, message);
+    }
+
+    void bytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    void discoveryFinished() {
+        discoveryFinished = true;
+    }
+
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public int getDiscovered() {
+        return discovered.get();
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getCompleted() {
+        return getProcessed() + getSkipped() + getFailed();
+    }
+
+    public ScanCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public boolean isDiscoveryFinished() {
+        return discoveryFinished;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    public Duration getElapsed() {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        return Duration.ofNanos(end - startedAt);
+    }
+
+    public double getFilesPerSecond() {
+        double seconds = getElapsed().toNanos() / 1_000_000_000d;
+        return seconds > 0 ? (getCompleted() - resumedCompleted) / seconds : 0;
+    }
+
+    public Duration getEta() {
+        if (isFinished()) {
+            return Duration.ZERO;
+        }
+        double filesPerSecond = getFilesPerSecond();
+        if (filesPerSecond <= 0) {
+            return null;
+        }
+        int remaining = Math.max(0, getDiscovered() - getCompleted());
+        return Duration.ofMillis((long) (remaining / filesPerSecond * 1000));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files (%d processed, %d skipped, %d failed) in %ds, %.2f files/sec",
+                getDiscovered(), getProcessed(), getSkipped(), getFailed(), getElapsed().toSeconds(), getFilesPerSecond());
+    }
+}
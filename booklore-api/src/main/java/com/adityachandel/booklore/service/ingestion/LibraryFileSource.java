@@ -0,0 +1,11 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface LibraryFileSource {
+    void forEach(Consumer<LibraryFile> sink) throws IOException;
+}
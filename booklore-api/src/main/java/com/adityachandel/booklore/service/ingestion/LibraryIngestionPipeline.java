@@ -0,0 +1,364 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.FileImportStatus;
+import com.adityachandel.booklore.model.enums.QuarantineReason;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.BookCreatorService;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.QuarantineService;
+import com.adityachandel.booklore.service.fileprocessor.EpubProcessor;
+import com.adityachandel.booklore.service.fileprocessor.FileProcessor;
+import com.adityachandel.booklore.service.fileprocessor.ParsedBook;
+import com.adityachandel.booklore.service.fileprocessor.PdfProcessor;
+import com.adityachandel.booklore.service.fileprocessor.RegionHashes;
+import com.adityachandel.booklore.util.FileUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LibraryIngestionPipeline {
+
+    private final IngestionProperties ingestionProperties;
+    private final BookRepository bookRepository;
+    private final BookCreatorService bookCreatorService;
+    private final NotificationService notificationService;
+    private final PdfProcessor pdfProcessor;
+    private final EpubProcessor epubProcessor;
+    private final CoverGenerationQueue coverGenerationQueue;
+    private final QuarantineService quarantineService;
+    private final InFlightFileRegistry inFlightFileRegistry;
+
+    private BudgetedTaskPool parsePool;
+
+    @PostConstruct
+    public void startParsePool() {
+        int parseThreads = ingestionProperties.resolveParseThreads();
+        parsePool = new BudgetedTaskPool("ingest-parse", parseThreads, Thread.NORM_PRIORITY, ingestionProperties.getFileTimeout());
+        log.info("Ingestion pipeline initialized: {} read workers, {} parse threads", ingestionProperties.getReadConcurrency(), parseThreads);
+    }
+
+    @PreDestroy
+    public void stopParsePool() {
+        parsePool.shutdown();
+    }
+
+    public IngestionStats ingest(LibraryFileSource source) throws IOException {
+        return ingest(source, new IngestionStats());
+    }
+
+    public IngestionStats ingest(LibraryFileSource source, IngestionStats stats) throws IOException {
+        return ingest(source, stats, Set.of());
+    }
+
+    public IngestionStats ingest(LibraryFileSource source, IngestionStats stats, Collection<Path> claimedPaths) throws IOException {
+        BlockingQueue<StageResult> writeQueue = new ArrayBlockingQueue<>(ingestionProperties.getWriteQueueCapacity());
+        Semaphore readPermits = new Semaphore(ingestionProperties.getReadConcurrency());
+        Semaphore parsePermits = new Semaphore(ingestionProperties.resolveParseThreads() * 2);
+
+        AtomicInteger submitted = new AtomicInteger();
+        Set<Path> claimed = ConcurrentHashMap.newKeySet();
+        claimedPaths.forEach(path -> claimed.add(path.toAbsolutePath().normalize()));
+
+        Thread writer = Thread.ofVirtual().name("ingest-writer").start(() -> write(writeQueue, stats, claimed));
+        try (ExecutorService readExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                source.forEach(libraryFile -> {
+                    acquire(readPermits);
+                    submitted.incrementAndGet();
+                    stats.fileDiscovered();
+                    stats.getCheckpoint().discovered(libraryFile);
+                    readExecutor.execute(() -> read(libraryFile, readPermits, parsePermits, writeQueue, stats, claimed));
+                });
+                stats.discoveryFinished();
+            } finally {
+                writeQueue.put(StageResult.end(submitted.get()));
+                writer.join();
+            }
+        } catch (InterruptedException | CancellationException e) {
+            Thread.currentThread().interrupt();
+            writer.interrupt();
+            log.warn("Ingestion interrupted after {} files", submitted.get());
+        } finally {
+            claimed.forEach(inFlightFileRegistry::release);
+        }
+        stats.finish();
+        log.info("Ingestion finished: {}", stats);
+        return stats;
+    }
+
+    private void acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Ingestion interrupted");
+        }
+    }
+
+    private void read(LibraryFile libraryFile, Semaphore readPermits, Semaphore parsePermits, BlockingQueue<StageResult> writeQueue, IngestionStats stats, Set<Path> claimed) {
+        boolean readPermitHeld = true;
+        try {
+            log.info("Processing file: {}", libraryFile.getFileName());
+            if (libraryFile.getBookId() == null && bookRepository.existsByFileNameAndLibraryId(libraryFile.getFileName(), libraryFile.getLibraryEntity().getId())) {
+                handOff(writeQueue, StageResult.skipped(libraryFile));
+                return;
+            }
+            Path path = pathOf(libraryFile);
+            if (!claimed.contains(path) && !inFlightFileRegistry.tryClaim(path)) {
+                readPermits.release();
+                readPermitHeld = false;
+                log.info("Joining in-flight ingestion of file: {}", libraryFile.getFileName());
+                inFlightFileRegistry.awaitRelease(path);
+                handOff(writeQueue, StageResult.skipped(libraryFile));
+                return;
+            }
+            claimed.add(path);
+            if (quarantineService.isQuarantined(libraryFile)) {
+                log.info("Skipping quarantined file: {}", libraryFile.getFileName());
+                handOff(writeQueue, StageResult.skipped(libraryFile));
+                return;
+            }
+            if (libraryFile.getContentHash() == null) {
+                libraryFile.setContentHash(FileUtils.computeContentHash(Path.of(FileUtils.getFileFullPath(libraryFile))));
+            }
+            if (libraryFile.getFileSize() != null) {
+                stats.bytesRead(libraryFile.getFileSize());
+            }
+            parsePermits.acquire();
+            BudgetedTaskPool.BudgetedTask<ParsedBook> parseTask;
+            try {
+                parseTask = parsePool.submit(() -> processorFor(libraryFile.getBookFileType()).parseFile(libraryFile), parsePermits::release);
+            } catch (RejectedExecutionException e) {
+                parsePermits.release();
+                throw e;
+            }
+            readPermits.release();
+            readPermitHeld = false;
+            handOff(writeQueue, awaitParse(libraryFile, parseTask));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error while reading file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+            handOff(writeQueue, StageResult.error(libraryFile));
+        } finally {
+            if (readPermitHeld) {
+                readPermits.release();
+            }
+        }
+    }
+
+    private StageResult awaitParse(LibraryFile libraryFile, BudgetedTaskPool.BudgetedTask<ParsedBook> parseTask) throws InterruptedException {
+        try {
+            return StageResult.parsed(libraryFile, parseTask.await());
+        } catch (BudgetedTaskPool.BudgetExceededException e) {
+            return StageResult.quarantined(libraryFile, e.getReason(), "Parsing " + e.getMessage(), e.getElapsedMillis());
+        } catch (ExecutionException e) {
+            log.error("Error while processing file {}, error: {}", libraryFile.getFileName(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return StageResult.parseFailed(libraryFile);
+        }
+    }
+
+    private void write(BlockingQueue<StageResult> writeQueue, IngestionStats stats, Set<Path> claimed) {
+        int batchSize = ingestionProperties.getWriteBatchSize();
+        List<StageResult> pendingInserts = new ArrayList<>(Math.max(batchSize, 1));
+        int received = 0;
+        int expected = -1;
+        while (expected < 0 || received < expected) {
+            StageResult result;
+            try {
+                result = writeQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (result.outcome() == Outcome.END) {
+                expected = result.count();
+                continue;
+            }
+            received++;
+            boolean deferred = false;
+            switch (result.outcome()) {
+                case SKIPPED -> stats.fileSkipped(result.libraryFile());
+                case ERROR -> stats.fileFailed(result.libraryFile(), null, "Unable to read file");
+                case QUARANTINED -> quarantine(result, stats);
+                case PARSED, PARSE_FAILED -> {
+                    if (batchSize > 1 && result.libraryFile().getBookId() == null) {
+                        pendingInserts.add(result);
+                        deferred = true;
+                    } else {
+                        persist(result, stats);
+                    }
+                }
+            }
+            if (!deferred) {
+                release(result.libraryFile(), claimed);
+            }
+            if (!pendingInserts.isEmpty() && (pendingInserts.size() >= batchSize || writeQueue.isEmpty())) {
+                persistBatch(pendingInserts, stats);
+                pendingInserts.forEach(pending -> release(pending.libraryFile(), claimed));
+                pendingInserts.clear();
+            }
+        }
+        if (!pendingInserts.isEmpty()) {
+            persistBatch(pendingInserts, stats);
+            pendingInserts.forEach(pending -> release(pending.libraryFile(), claimed));
+        }
+    }
+
+    private void release(LibraryFile libraryFile, Set<Path> claimed) {
+        Path path = pathOf(libraryFile);
+        if (claimed.remove(path)) {
+            inFlightFileRegistry.release(path);
+        }
+    }
+
+    private static Path pathOf(LibraryFile libraryFile) {
+        return Path.of(FileUtils.getFileFullPath(libraryFile)).toAbsolutePath().normalize();
+    }
+
+    private void persistBatch(List<StageResult> results, IngestionStats stats) {
+        Map<LibraryFile, ParsedBook> parsedBooks = new LinkedHashMap<>();
+        results.forEach(result -> parsedBooks.put(result.libraryFile(), result.parsedBook()));
+        List<Book> books;
+        try {
+            books = bookCreatorService.createBooks(parsedBooks);
+        } catch (Exception e) {
+            log.warn("Batch insert of {} books failed, retrying one by one, error: {}", results.size(), e.getMessage());
+            results.forEach(result -> persist(result, stats));
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            onPersisted(results.get(i), books.get(i), Topic.BOOK_ADD, "Book added: ", stats);
+        }
+    }
+
+    private void persist(StageResult result, IngestionStats stats) {
+        LibraryFile libraryFile = result.libraryFile();
+        try {
+            if (libraryFile.getBookId() != null) {
+                Book book = bookCreatorService.updateBook(libraryFile.getBookId(), libraryFile, result.parsedBook());
+                onPersisted(result, book, Topic.BOOK_METADATA_UPDATE, "Book updated: ", stats);
+            } else {
+                Book book = bookCreatorService.createBook(libraryFile, libraryFile.getBookFileType(), result.parsedBook());
+                onPersisted(result, book, Topic.BOOK_ADD, "Book added: ", stats);
+            }
+        } catch (Exception e) {
+            log.error("Error while saving file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+            stats.fileFailed(libraryFile, libraryFile.getBookId(), e.getMessage());
+        }
+    }
+
+    private void quarantine(StageResult result, IngestionStats stats) {
+        LibraryFile libraryFile = result.libraryFile();
+        Violation violation = result.violation();
+        try {
+            quarantineService.quarantine(libraryFile, violation.reason(), violation.message(), violation.elapsedMillis());
+            notificationService.sendMessage(Topic.LOG, createLogNotification("File quarantined: " + libraryFile.getFileName() + " (" + violation.reason() + ")"));
+        } catch (Exception e) {
+            log.error("Error while quarantining file {}, error: {}", libraryFile.getFileName(), e.getMessage());
+        }
+        stats.fileFailed(libraryFile, libraryFile.getBookId(), violation.message());
+    }
+
+    private void onPersisted(StageResult result, Book book, Topic topic, String logPrefix, IngestionStats stats) {
+        notificationService.sendMessage(topic, book);
+        notificationService.sendMessage(Topic.LOG, createLogNotification(logPrefix + book.getFileName()));
+        log.info("Processed file: {}", result.libraryFile().getFileName());
+        if (result.outcome() == Outcome.PARSED) {
+            if (!isCoverLocked(book) && !result.libraryFile().isSkipCover()) {
+                coverGenerationQueue.enqueue(book.getId(), result.libraryFile());
+            }
+            stats.fileProcessed(result.libraryFile(), book.getId(), topic == Topic.BOOK_ADD ? FileImportStatus.ADDED : FileImportStatus.UPDATED);
+        } else {
+            stats.fileFailed(result.libraryFile(), book.getId(), "Unable to parse file, added without metadata");
+        }
+    }
+
+    private static boolean isCoverLocked(Book book) {
+        return book.getMetadata() != null
+                && (Boolean.TRUE.equals(book.getMetadata().getCoverLocked()) || Boolean.TRUE.equals(book.getMetadata().getAllFieldsLocked()));
+    }
+
+    public RegionHashes hashRegions(LibraryFile libraryFile) throws IOException {
+        try {
+            return parsePool.submit(() -> processorFor(libraryFile.getBookFileType()).hashRegions(libraryFile)).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing " + libraryFile.getFileName(), e);
+        } catch (BudgetedTaskPool.BudgetExceededException e) {
+            throw new IOException("Hashing " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+        }
+    }
+
+    private FileProcessor processorFor(BookFileType bookFileType) {
+        return bookFileType == BookFileType.PDF ? pdfProcessor : epubProcessor;
+    }
+
+    private void handOff(BlockingQueue<StageResult> writeQueue, StageResult result) {
+        try {
+            writeQueue.put(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Dropped result for file {} due to interruption", result.libraryFile().getFileName());
+        }
+    }
+
+    private enum Outcome {
+        PARSED, PARSE_FAILED, SKIPPED, ERROR, QUARANTINED, END
+    }
+
+    private record Violation(QuarantineReason reason, String message, long elapsedMillis) {
+    }
+
+    private record StageResult(Outcome outcome, LibraryFile libraryFile, ParsedBook parsedBook, Violation violation, int count) {
+
+        static StageResult parsed(LibraryFile libraryFile, ParsedBook parsedBook) {
+            return new StageResult(Outcome.PARSED, libraryFile, parsedBook, null, 0);
+        }
+
+        static StageResult parseFailed(LibraryFile libraryFile) {
+            return new StageResult(Outcome.PARSE_FAILED, libraryFile, null, null, 0);
+        }
+
+        static StageResult skipped(LibraryFile libraryFile) {
+            return new StageResult(Outcome.SKIPPED, libraryFile, null, null, 0);
+        }
+
+        static StageResult error(LibraryFile libraryFile) {
+            return new StageResult(Outcome.ERROR, libraryFile, null, null, 0);
+        }
+
+        static StageResult quarantined(LibraryFile libraryFile, QuarantineReason reason, String message, long elapsedMillis) {
+            return new StageResult(Outcome.QUARANTINED, libraryFile, null, new Violation(reason, message, elapsedMillis), 0);
+        }
+
+        static StageResult end(int count) {
+            return new StageResult(Outcome.END, null, null, null, count);
+        }
+    }
+}
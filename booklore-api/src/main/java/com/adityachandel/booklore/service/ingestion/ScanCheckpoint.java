@@ -0,0 +1,79 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ScanCheckpoint {
+
+    public record Cursor(Long libraryPathId, String relativePath) {
+
+        public static Cursor of(LibraryFile libraryFile) {
+            String subPath = libraryFile.getFileSubPath();
+            String relativePath = subPath == null || subPath.isEmpty() ? libraryFile.getFileName() : subPath + "/" + libraryFile.getFileName();
+            return new Cursor(libraryFile.getLibraryPathEntity().getId(), relativePath);
+        }
+
+        public boolean isBefore(Cursor other) {
+            int byPath = Long.compare(libraryPathId, other.libraryPathId);
+            return byPath != 0 ? byPath < 0 : compareRelativePaths(relativePath, other.relativePath) < 0;
+        }
+
+        private static int compareRelativePaths(String left, String right) {
+            String[] leftNames = left.split("/");
+            String[] rightNames = right.split("/");
+            for (int i = 0; i < Math.min(leftNames.length, rightNames.length); i++) {
+                int byName = leftNames[i].compareTo(rightNames[i]);
+                if (byName != 0) {
+                    return byName;
+                }
+            }
+            return Integer.compare(leftNames.length, rightNames.length);
+        }
+    }
+
+    private final Map<Cursor, Boolean> inFlight = new LinkedHashMap<>();
+    private volatile Cursor committed;
+
+    public ScanCheckpoint() {
+    }
+
+    public ScanCheckpoint(Cursor committed) {
+        this.committed = committed;
+    }
+
+    synchronized void discovered(LibraryFile libraryFile) {
+        inFlight.put(Cursor.of(libraryFile), Boolean.FALSE);
+    }
+
+    synchronized void completed(LibraryFile libraryFile) {
+        Cursor cursor = Cursor.of(libraryFile);
+        if (inFlight.replace(cursor, Boolean.TRUE) == null) {
+            return;
+        }
+        Iterator<Map.Entry<Cursor, Boolean>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Cursor, Boolean> entry = iterator.next();
+            if (!entry.getValue()) {
+                break;
+            }
+            committed = entry.getKey();
+            iterator.remove();
+        }
+    }
+
+    public Cursor getCommitted() {
+        return committed;
+    }
+
+    public boolean isCommitted(LibraryFile libraryFile) {
+        Cursor cursor = committed;
+        if (cursor == null) {
+            return false;
+        }
+        Cursor candidate = Cursor.of(libraryFile);
+        return candidate.equals(cursor) || candidate.isBefore(cursor);
+    }
+}
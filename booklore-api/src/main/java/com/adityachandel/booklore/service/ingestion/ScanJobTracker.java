@@ -0,0 +1,282 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.dto.ScanJob;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.ScanJobEntity;
+import com.adityachandel.booklore.model.enums.ScanJobStatus;
+import com.adityachandel.booklore.model.enums.ScanJobType;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.ScanJobRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScanJobTracker {
+
+    private final IngestionProperties ingestionProperties;
+    private final NotificationService notificationService;
+    private final ScanJobRepository scanJobRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, TrackedJob> runningJobs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService progressPublisher;
+    private TransactionTemplate requiresNewTransaction;
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    public void start() {
+        requiresNewTransaction = new TransactionTemplate(transactionManager);
+        requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        progressPublisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scan-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long progressMillis = ingestionProperties.getProgressInterval().toMillis();
+        long checkpointMillis = ingestionProperties.getCheckpointInterval().toMillis();
+        progressPublisher.scheduleAtFixedRate(this::publishProgress, progressMillis, progressMillis, TimeUnit.MILLISECONDS);
+        progressPublisher.scheduleAtFixedRate(this::saveCheckpoints, checkpointMillis, checkpointMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        shuttingDown = true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        shuttingDown = true;
+        progressPublisher.shutdownNow();
+        saveCheckpoints();
+    }
+
+    public TrackedJob start(ScanJobType type, LibraryEntity libraryEntity) {
+        ScanJobEntity entity = requiresNewTransaction.execute(status -> scanJobRepository.save(ScanJobEntity.builder()
+                .libraryId(libraryEntity.getId())
+                .type(type)
+                .status(ScanJobStatus.RUNNING)
+                .startedOn(Instant.now())
+                .build()));
+        return track(new TrackedJob(entity, libraryEntity.getName(), new IngestionStats()));
+    }
+
+    public TrackedJob resume(ScanJobEntity entity, LibraryEntity libraryEntity) {
+        ScanCheckpoint.Cursor cursor = entity.getCheckpointPath() == null ? null
+                : new ScanCheckpoint.Cursor(entity.getCheckpointLibraryPathId(), entity.getCheckpointPath());
+        IngestionStats stats = new IngestionStats(new ScanCheckpoint(cursor));
+        stats.restore(entity.getProcessed(), entity.getSkipped(), entity.getFailed(), entity.getBytesRead());
+        log.info("Resuming scan job {} for library {} after {}", entity.getId(), libraryEntity.getName(), cursor);
+        return track(new TrackedJob(entity, libraryEntity.getName(), stats));
+    }
+
+    public List<ScanJobEntity> findInterruptedJobs() {
+        return scanJobRepository.findByStatusOrderByStartedOnAsc(ScanJobStatus.RUNNING).stream()
+                .filter(entity -> !runningJobs.containsKey(entity.getId()))
+                .toList();
+    }
+
+    public void markInterrupted(ScanJobEntity entity) {
+        entity.setStatus(ScanJobStatus.INTERRUPTED);
+        entity.setFinishedOn(Instant.now());
+        requiresNewTransaction.executeWithoutResult(status -> scanJobRepository.save(entity));
+    }
+
+    public void complete(TrackedJob job) {
+        if (shuttingDown && Thread.currentThread().isInterrupted()) {
+            stopByShutdown(job);
+            return;
+        }
+        finish(job, ScanJobStatus.COMPLETED, null);
+    }
+
+    public void fail(TrackedJob job, Exception e) {
+        if (shuttingDown) {
+            stopByShutdown(job);
+            return;
+        }
+        finish(job, ScanJobStatus.FAILED, e.getMessage());
+    }
+
+    private void stopByShutdown(TrackedJob job) {
+        saveCheckpoint(job);
+        runningJobs.remove(job.getId());
+        log.info("Scan job {} stopped by shutdown, it will resume on next start", job.getId());
+    }
+
+    public List<ScanJob> getJobs() {
+        List<ScanJob> jobs = new ArrayList<>();
+        runningJobs.values().stream()
+                .sorted(Comparator.comparing(TrackedJob::getStartedAt))
+                .map(TrackedJob::toScanJob)
+                .forEach(jobs::add);
+        scanJobRepository.findAllByOrderByStartedOnDesc(PageRequest.of(0, ingestionProperties.getJobHistorySize())).stream()
+                .filter(entity -> !runningJobs.containsKey(entity.getId()))
+                .map(ScanJobTracker::toScanJob)
+                .forEach(jobs::add);
+        return jobs;
+    }
+
+    public Optional<ScanJob> getJob(long jobId) {
+        TrackedJob running = runningJobs.get(jobId);
+        if (running != null) {
+            return Optional.of(running.toScanJob());
+        }
+        return scanJobRepository.findById(jobId).map(ScanJobTracker::toScanJob);
+    }
+
+    private TrackedJob track(TrackedJob job) {
+        runningJobs.put(job.getId(), job);
+        notificationService.sendMessage(Topic.SCAN_PROGRESS, job.toScanJob());
+        return job;
+    }
+
+    private void finish(TrackedJob job, ScanJobStatus status, String error) {
+        if (!job.stats.isFinished()) {
+            job.stats.finish();
+        }
+        job.status = status;
+        job.error = error;
+        job.finishedAt = Instant.now();
+        try {
+            requiresNewTransaction.executeWithoutResult(transactionStatus -> scanJobRepository.findById(job.getId()).ifPresent(entity -> {
+                copyProgress(job, entity);
+                entity.setStatus(status);
+                entity.setErrorMessage(error);
+                entity.setFinishedOn(job.finishedAt);
+                scanJobRepository.save(entity);
+            }));
+        } catch (Exception e) {
+            log.warn("Unable to save final state of scan job {}, error: {}", job.getId(), e.getMessage());
+        }
+        runningJobs.remove(job.getId());
+        notificationService.sendMessage(Topic.SCAN_PROGRESS, job.toScanJob());
+    }
+
+    private void publishProgress() {
+        try {
+            runningJobs.values().forEach(job -> notificationService.sendMessage(Topic.SCAN_PROGRESS, job.toScanJob()));
+        } catch (Exception e) {
+            log.warn("Unable to publish scan progress, error: {}", e.getMessage());
+        }
+    }
+
+    private void saveCheckpoints() {
+        runningJobs.values().forEach(this::saveCheckpoint);
+    }
+
+    private void saveCheckpoint(TrackedJob job) {
+        try {
+            IngestionStats stats = job.stats;
+            ScanCheckpoint.Cursor cursor = stats.getCheckpoint().getCommitted();
+            requiresNewTransaction.executeWithoutResult(status -> scanJobRepository.updateProgress(job.getId(),
+                    stats.getDiscovered(), stats.getProcessed(), stats.getSkipped(), stats.getFailed(), stats.getBytesRead(),
+                    cursor != null ? cursor.libraryPathId() : null, cursor != null ? cursor.relativePath() : null, Instant.now()));
+        } catch (Exception e) {
+            log.warn("Unable to checkpoint scan job {}, error: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private static void copyProgress(TrackedJob job, ScanJobEntity entity) {
+        IngestionStats stats = job.stats;
+        ScanCheckpoint.Cursor cursor = stats.getCheckpoint().getCommitted();
+        entity.setDiscovered(stats.getDiscovered());
+        entity.setProcessed(stats.getProcessed());
+        entity.setSkipped(stats.getSkipped());
+        entity.setFailed(stats.getFailed());
+        entity.setBytesRead(stats.getBytesRead());
+        entity.setCheckpointLibraryPathId(cursor != null ? cursor.libraryPathId() : null);
+        entity.setCheckpointPath(cursor != null ? cursor.relativePath() : null);
+        entity.setUpdatedOn(Instant.now());
+    }
+
+    private static ScanJob toScanJob(ScanJobEntity entity) {
+        Instant end = entity.getFinishedOn() != null ? entity.getFinishedOn()
+                : entity.getUpdatedOn() != null ? entity.getUpdatedOn() : entity.getStartedOn();
+        long durationMillis = Duration.between(entity.getStartedOn(), end).toMillis();
+        int completed = entity.getProcessed() + entity.getSkipped() + entity.getFailed();
+        return ScanJob.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .status(entity.getStatus())
+                .libraryId(entity.getLibraryId())
+                .startedAt(entity.getStartedOn())
+                .finishedAt(entity.getFinishedOn())
+                .discovered(entity.getDiscovered())
+                .processed(entity.getProcessed())
+                .skipped(entity.getSkipped())
+                .failed(entity.getFailed())
+                .bytesRead(entity.getBytesRead())
+                .discoveryFinished(entity.getFinishedOn() != null)
+                .filesPerSecond(durationMillis > 0 ? completed * 1000d / durationMillis : 0)
+                .durationMillis(durationMillis)
+                .error(entity.getErrorMessage())
+                .build();
+    }
+
+    @Getter
+    public static class TrackedJob {
+        private final long id;
+        private final ScanJobType type;
+        private final Long libraryId;
+        private final String libraryName;
+        private final Instant startedAt;
+        private final IngestionStats stats;
+        private volatile ScanJobStatus status = ScanJobStatus.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        TrackedJob(ScanJobEntity entity, String libraryName, IngestionStats stats) {
+            this.id = entity.getId();
+            this.type = entity.getType();
+            this.libraryId = entity.getLibraryId();
+            this.libraryName = libraryName;
+            this.startedAt = entity.getStartedOn();
+            this.stats = stats;
+        }
+
+        ScanJob toScanJob() {
+            Duration eta = status == ScanJobStatus.RUNNING && stats.isDiscoveryFinished() ? stats.getEta() : null;
+            return ScanJob.builder()
+                    .id(id)
+                    .type(type)
+                    .status(status)
+                    .libraryId(libraryId)
+                    .libraryName(libraryName)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .discovered(stats.getDiscovered())
+                    .processed(stats.getProcessed())
+                    .skipped(stats.getSkipped())
+                    .failed(stats.getFailed())
+                    .bytesRead(stats.getBytesRead())
+                    .discoveryFinished(stats.isDiscoveryFinished())
+                    .filesPerSecond(stats.getFilesPerSecond())
+                    .etaSeconds(eta != null ? eta.toSeconds() : null)
+                    .durationMillis(Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis())
+                    .error(error)
+                    .build();
+        }
+    }
+}
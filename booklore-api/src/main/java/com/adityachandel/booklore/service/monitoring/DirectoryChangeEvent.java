@@ -0,0 +1,20 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+
+@Getter
+public class DirectoryChangeEvent extends ApplicationEvent {
+
+    private final Path directory;
+    private final WatchEvent.Kind<?> eventKind;
+
+    public DirectoryChangeEvent(Object source, Path directory, WatchEvent.Kind<?> eventKind) {
+        super(source);
+        this.directory = directory;
+        this.eventKind = eventKind;
+    }
+}
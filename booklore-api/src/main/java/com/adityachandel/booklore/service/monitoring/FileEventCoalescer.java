@@ -0,0 +1,127 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+@Slf4j
+public class FileEventCoalescer {
+
+    private final long quietNanos;
+    private final int maxPending;
+    private final Predicate<FileChangeEvent> dispatcher;
+    private final Map<Path, PendingChange> pendingChanges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public FileEventCoalescer(Duration quietPeriod, int maxPending, Predicate<FileChangeEvent> dispatcher) {
+        this.quietNanos = quietPeriod.toNanos();
+        this.maxPending = maxPending;
+        this.dispatcher = dispatcher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "watch-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = Math.max(100, quietPeriod.toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::dispatchStableChanges, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean submit(FileChangeEvent event) {
+        if (pendingChanges.size() >= maxPending && !pendingChanges.containsKey(event.getFilePath())) {
+            return false;
+        }
+        long now = System.nanoTime();
+        pendingChanges.compute(event.getFilePath(), (path, pending) -> pending == null
+                ? new PendingChange(event, now, -1, -1, now)
+                : pending.merge(event, now));
+        return true;
+    }
+
+    public void discardUnder(Path directory) {
+        pendingChanges.keySet().removeIf(path -> path.startsWith(directory));
+    }
+
+    public int getPending() {
+        return pendingChanges.size();
+    }
+
+    public List<FileChangeEvent> shutdown() {
+        scheduler.shutdownNow();
+        List<FileChangeEvent> events = pendingChanges.values().stream().map(PendingChange::event).toList();
+        pendingChanges.clear();
+        return events;
+    }
+
+    private void dispatchStableChanges() {
+        long now = System.nanoTime();
+        for (Map.Entry<Path, PendingChange> entry : pendingChanges.entrySet()) {
+            try {
+                PendingChange change = entry.getValue();
+                PendingChange observed = change.observe(now);
+                if (observed != change) {
+                    pendingChanges.replace(entry.getKey(), change, observed);
+                    continue;
+                }
+                if (now - Math.max(change.lastEventNanos(), change.stableSinceNanos()) >= quietNanos
+                        && pendingChanges.remove(entry.getKey(), change)
+                        && !dispatcher.test(change.event())) {
+                    pendingChanges.putIfAbsent(entry.getKey(), change);
+                }
+            } catch (Exception e) {
+                log.error("Error while dispatching change for {}, error: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private record PendingChange(FileChangeEvent event, long lastEventNanos, long size, long lastModified, long stableSinceNanos) {
+
+        PendingChange merge(FileChangeEvent next, long now) {
+            WatchEvent.Kind<?> kind = mergeKinds(event.getEventKind(), next.getEventKind());
+            FileChangeEvent merged = new FileChangeEvent(next.getSource(), next.getFilePath(), kind, next.getWatchedFolder());
+            return new PendingChange(merged, now, size, lastModified, stableSinceNanos);
+        }
+
+        PendingChange observe(long now) {
+            if (event.getEventKind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                return this;
+            }
+            long currentSize;
+            long currentLastModified;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(event.getFilePath(), BasicFileAttributes.class);
+                currentSize = attributes.size();
+                currentLastModified = attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                currentSize = -1;
+                currentLastModified = -1;
+            }
+            if (currentSize == size && currentLastModified == lastModified) {
+                return this;
+            }
+            return new PendingChange(event, lastEventNanos, currentSize, currentLastModified, now);
+        }
+
+        private static WatchEvent.Kind<?> mergeKinds(WatchEvent.Kind<?> previous, WatchEvent.Kind<?> next) {
+            if (next == StandardWatchEventKinds.ENTRY_DELETE) {
+                return StandardWatchEventKinds.ENTRY_DELETE;
+            }
+            if (previous == StandardWatchEventKinds.ENTRY_MODIFY && next == StandardWatchEventKinds.ENTRY_MODIFY) {
+                return StandardWatchEventKinds.ENTRY_MODIFY;
+            }
+            return StandardWatchEventKinds.ENTRY_CREATE;
+        }
+    }
+}
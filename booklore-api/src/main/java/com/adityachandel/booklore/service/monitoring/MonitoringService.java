@@ -1,41 +1,75 @@
 package com.adityachandel.booklore.service.monitoring;
 
+import com.adityachandel.booklore.config.MonitoringProperties;
 import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.model.entity.PendingFileEventEntity;
+import com.adityachandel.booklore.model.enums.WatchMode;
+import com.adityachandel.booklore.repository.PendingFileEventRepository;
 import com.adityachandel.booklore.service.LibraryProcessingService;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class MonitoringService {
 
     private final LibraryProcessingService libraryProcessingService;
     private final WatchService watchService;
     private final MonitoringTask monitoringTask;
+    private final PendingFileEventRepository pendingFileEventRepository;
+    private final MonitoringProperties monitoringProperties;
+    private final MeterRegistry meterRegistry;
+    private final DataSource dataSource;
 
     private final Set<Path> monitoredPaths = ConcurrentHashMap.newKeySet();
     private final Map<Path, Long> pathToLibraryIdMap = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
+    private final Set<Path> unwatchedDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<Path> dirtyDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<Path> removedDirectories = ConcurrentHashMap.newKeySet();
 
-    private final BlockingQueue<FileChangeEvent> eventQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService rescanExecutor = Executors.newSingleThreadScheduledExecutor();
+    private volatile int watchBudget;
+    private FileEventCoalescer eventCoalescer;
+    private StripedEventExecutor eventExecutor;
+    private PollingChangeDetector pollingChangeDetector;
 
     @PostConstruct
     public void initializeMonitoring() {
+        watchBudget = resolveWatchBudget();
+        eventExecutor = new StripedEventExecutor(monitoringProperties.resolveEventThreads(connectionPoolSize()), monitoringProperties.getEventQueueCapacity(),
+                this::processFileChangeEvent, meterRegistry);
+        eventCoalescer = new FileEventCoalescer(monitoringProperties.getQuietPeriod(), monitoringProperties.getMaxPendingEvents(), this::enqueueEvent);
+        Gauge.builder("booklore.watch.pending", eventCoalescer, FileEventCoalescer::getPending).register(meterRegistry);
+        pollingChangeDetector = new PollingChangeDetector(monitoringProperties.getPollMinInterval(), monitoringProperties.getPollMaxInterval(),
+                monitoringProperties.getPollContentCheckInterval(), this::handleFileChangeEvent, this::handleDirectoryChangeEvent);
         monitoringTask.monitor();
-        startProcessingThread();
+        long intervalMillis = monitoringProperties.getFallbackRescanInterval().toMillis();
+        rescanExecutor.scheduleWithFixedDelay(this::rescanUnwatchedDirectories, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        long dirtyDelayMillis = Math.max(1000, monitoringProperties.getQuietPeriod().toMillis());
+        rescanExecutor.scheduleWithFixedDelay(this::rescanDirtyDirectories, dirtyDelayMillis, dirtyDelayMillis, TimeUnit.MILLISECONDS);
     }
 
     public void registerLibrariesForMonitoring(List<Library> libraries) {
@@ -44,28 +78,30 @@ public class MonitoringService {
                 .forEach(library -> {
                     library.getPaths().forEach(libraryPath -> {
                         Path path = Paths.get(libraryPath.getPath());
-                        if (Files.isDirectory(path)) {
-                            registerPath(path, library.getId());
+                        if (library.getWatchMode() == WatchMode.POLLING || Files.isDirectory(path)) {
+                            registerPath(path, library.getId(), library.getWatchMode());
                         }
                     });
                 });
         log.info("Registered libraries for monitoring: {}", libraries.size());
     }
 
-    public synchronized void registerPath(Path path, Long libraryId) {
-        try {
-            if (monitoredPaths.add(path)) {
-                path.register(watchService,
-                        StandardWatchEventKinds.ENTRY_CREATE,
-                        StandardWatchEventKinds.ENTRY_MODIFY,
-                        StandardWatchEventKinds.ENTRY_DELETE);
-                pathToLibraryIdMap.put(path, libraryId);
-                log.info("Registered folder for monitoring: {} (Library ID: {})", path, libraryId);
+    public synchronized void registerPath(Path path, Long libraryId, WatchMode watchMode) {
+        boolean polling = watchMode == WatchMode.POLLING;
+        if (monitoredPaths.contains(path) && pollingChangeDetector.isPolled(path) != polling) {
+            unregisterPath(path.toString());
+        }
+        if (monitoredPaths.add(path)) {
+            pathToLibraryIdMap.put(path, libraryId);
+            if (polling) {
+                pollingChangeDetector.register(path);
+                log.info("Registered folder for polling: {} (Library ID: {})", path, libraryId);
             } else {
-                log.warn("Path is already registered: {}", path);
+                registerTree(path);
+                log.info("Registered folder for monitoring: {} (Library ID: {}, {} directories watched)", path, libraryId, watchKeys.size());
             }
-        } catch (IOException e) {
-            log.error("Error registering path: {}", path, e);
+        } else {
+            log.warn("Path is already registered: {}", path);
         }
     }
 
@@ -73,6 +109,8 @@ public class MonitoringService {
         Path path = Paths.get(folderPath);
         if (monitoredPaths.remove(path)) {
             pathToLibraryIdMap.remove(path);
+            pollingChangeDetector.unregister(path);
+            unregisterTree(path);
             log.info("Unregistered folder from monitoring: {}", folderPath);
         } else {
             log.warn("Folder not found in monitored paths: {}", folderPath);
@@ -80,36 +118,312 @@ public class MonitoringService {
     }
 
     @EventListener
-    public void handleFileChangeEvent(FileChangeEvent event) {
-        if (!eventQueue.offer(event)) {
-            log.warn("Event queue is full, dropping event: {}", event.getFilePath());
+    public void handleDirectoryChangeEvent(DirectoryChangeEvent event) {
+        Path directory = event.getDirectory();
+        if (event.getEventKind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            boolean known = event.getSource() instanceof PollingChangeDetector
+                    || watchKeys.containsKey(directory) || unwatchedDirectories.contains(directory);
+            synchronized (this) {
+                unregisterTree(directory);
+            }
+            if (known) {
+                directoryRemoved(directory);
+            }
+            return;
+        }
+        if (event.getEventKind() == StandardWatchEventKinds.OVERFLOW) {
+            markDirty(directory);
+            return;
+        }
+        Path root = findRoot(directory);
+        if (root == null) {
+            return;
+        }
+        if (!pollingChangeDetector.isPolled(root)) {
+            synchronized (this) {
+                registerTree(directory);
+            }
+        }
+        Path movedFrom = takeMoveSource(directory, root);
+        if (movedFrom != null) {
+            rescanExecutor.execute(() -> applyDirectoryMove(root, movedFrom, directory));
         } else {
-            log.info("Queued file change event: {} ({} in queue)", event.getFilePath(), eventQueue.size());
+            queueExistingFiles(directory);
+        }
+    }
+
+    private void directoryRemoved(Path directory) {
+        Path root = findRoot(directory);
+        if (root == null || root.equals(directory) || Files.exists(directory) || !removedDirectories.add(directory)) {
+            return;
         }
+        eventCoalescer.discardUnder(directory);
+        long delayMillis = monitoringProperties.getQuietPeriod().toMillis();
+        rescanExecutor.schedule(() -> flushRemovedDirectory(directory), delayMillis, TimeUnit.MILLISECONDS);
     }
 
-    private void startProcessingThread() {
-        singleThreadExecutor.submit(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    FileChangeEvent event = eventQueue.take();
-                    processFileChangeEvent(event);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+    private Path takeMoveSource(Path directory, Path root) {
+        for (Path removed : removedDirectories) {
+            if (!root.equals(findRoot(removed))) {
+                continue;
+            }
+            boolean candidate = removed.getFileName().equals(directory.getFileName()) || hasMovedContent(root, removed, directory);
+            if (candidate && removedDirectories.remove(removed)) {
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasMovedContent(Path root, Path from, Path to) {
+        Long libraryId = pathToLibraryIdMap.get(root);
+        if (libraryId == null) {
+            return false;
+        }
+        try {
+            return libraryProcessingService.isMovedDirectory(libraryId, root.toString(), from, to);
+        } catch (Exception e) {
+            log.warn("Unable to compare {} with removed directory {}, error: {}", to, from, e.getMessage());
+            return false;
+        }
+    }
+
+    private void flushRemovedDirectory(Path directory) {
+        if (!removedDirectories.remove(directory)) {
+            return;
+        }
+        Path root = findRoot(directory);
+        if (root == null) {
+            return;
+        }
+        try {
+            libraryProcessingService.deleteDirectory(pathToLibraryIdMap.get(root), root.toString(), directory);
+        } catch (Exception e) {
+            log.error("Error while removing books under {}, error: {}", directory, e.getMessage());
+        }
+    }
+
+    private void applyDirectoryMove(Path root, Path from, Path to) {
+        Long libraryId = pathToLibraryIdMap.get(root);
+        if (libraryId == null) {
+            return;
+        }
+        try {
+            int moved = libraryProcessingService.moveDirectory(libraryId, root.toString(), from, to);
+            if (moved == 0) {
+                queueExistingFiles(to);
+            } else if (moved > 0) {
+                libraryProcessingService.rescanDirectory(libraryId, root.toString(), to);
+            } else {
+                Path common = from.getParent();
+                while (!to.startsWith(common)) {
+                    common = common.getParent();
                 }
+                libraryProcessingService.rescanDirectory(libraryId, root.toString(), common);
             }
+        } catch (Exception e) {
+            log.error("Error while moving books from {} to {}, error: {}", from, to, e.getMessage());
+        }
+    }
+
+    private void registerTree(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    if (registerDirectory(dir)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    unwatchedDirectories.add(dir);
+                    log.warn("Watch budget exhausted, {} will be rescanned every {}", dir, monitoringProperties.getFallbackRescanInterval());
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.warn("Unable to read {}, error: {}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("Error registering path: {}", directory, e);
+        }
+    }
+
+    private boolean registerDirectory(Path directory) {
+        if (watchKeys.containsKey(directory)) {
+            return true;
+        }
+        if (watchKeys.size() >= watchBudget) {
+            return false;
+        }
+        try {
+            WatchKey key = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchKeys.put(directory, key);
+            return true;
+        } catch (IOException e) {
+            log.warn("Unable to watch {}, error: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    private void unregisterTree(Path directory) {
+        watchKeys.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(directory)) {
+                return false;
+            }
+            entry.getValue().cancel();
+            return true;
         });
+        unwatchedDirectories.removeIf(unwatched -> unwatched.startsWith(directory));
+    }
+
+    private void queueExistingFiles(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && isBookFile(file))
+                    .forEach(file -> handleFileChangeEvent(new FileChangeEvent(this, file, StandardWatchEventKinds.ENTRY_CREATE, file.getParent())));
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Unable to list files in new directory {}, error: {}", directory, e.getMessage());
+        }
+    }
+
+    private void rescanUnwatchedDirectories() {
+        for (Path directory : List.copyOf(unwatchedDirectories)) {
+            Path root = findRoot(directory);
+            if (root == null || !Files.isDirectory(directory)) {
+                unwatchedDirectories.remove(directory);
+                continue;
+            }
+            synchronized (this) {
+                unwatchedDirectories.remove(directory);
+                registerTree(directory);
+            }
+            try {
+                libraryProcessingService.rescanDirectory(pathToLibraryIdMap.get(root), root.toString(), directory);
+            } catch (Exception e) {
+                log.error("Error while rescanning unwatched directory {}, error: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private Path findRoot(Path path) {
+        for (Path candidate = path; candidate != null; candidate = candidate.getParent()) {
+            if (pathToLibraryIdMap.containsKey(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private int resolveWatchBudget() {
+        if (monitoringProperties.getMaxWatches() > 0) {
+            return monitoringProperties.getMaxWatches();
+        }
+        Path maxUserWatches = Path.of("/proc/sys/fs/inotify/max_user_watches");
+        try {
+            int systemLimit = Integer.parseInt(Files.readString(maxUserWatches).trim());
+            int budget = Math.max(1, (int) (systemLimit * monitoringProperties.getWatchBudgetFraction()));
+            log.info("Directory watch budget: {} of {} inotify watches", budget, systemLimit);
+            return budget;
+        } catch (IOException | NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private int connectionPoolSize() {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            return hikariDataSource.getMaximumPoolSize();
+        }
+        return 10;
+    }
+
+    static boolean isBookFile(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".pdf") || fileName.endsWith(".epub");
+    }
+
+    @EventListener
+    public void handleFileChangeEvent(FileChangeEvent event) {
+        if (isUnderDirtyDirectory(event.getFilePath())) {
+            return;
+        }
+        if (!eventCoalescer.submit(event)) {
+            markDirty(event.getWatchedFolder());
+        }
+    }
+
+    private void markDirty(Path directory) {
+        if (findRoot(directory) == null || isUnderDirtyDirectory(directory)) {
+            return;
+        }
+        if (dirtyDirectories.add(directory)) {
+            eventCoalescer.discardUnder(directory);
+            log.warn("Too many changes under {}, it will be rescanned instead of processing individual events", directory);
+        }
+    }
+
+    private boolean isUnderDirtyDirectory(Path path) {
+        for (Path dirty : dirtyDirectories) {
+            if (path.startsWith(dirty)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rescanDirtyDirectories() {
+        List<Path> dirty = dirtyDirectories.stream().sorted().toList();
+        for (Path directory : dirty) {
+            if (dirty.stream().anyMatch(other -> !other.equals(directory) && directory.startsWith(other))) {
+                dirtyDirectories.remove(directory);
+                continue;
+            }
+            dirtyDirectories.remove(directory);
+            Path root = findRoot(directory);
+            if (root == null) {
+                continue;
+            }
+            Path existing = directory;
+            while (!Files.isDirectory(existing) && !existing.equals(root)) {
+                existing = existing.getParent();
+            }
+            if (!Files.isDirectory(existing)) {
+                continue;
+            }
+            if (!pollingChangeDetector.isPolled(root)) {
+                synchronized (this) {
+                    registerTree(existing);
+                }
+            }
+            try {
+                libraryProcessingService.rescanDirectory(pathToLibraryIdMap.get(root), root.toString(), existing);
+            } catch (Exception e) {
+                log.error("Error while rescanning directory {}, error: {}", existing, e.getMessage());
+            }
+        }
+    }
+
+    private boolean enqueueEvent(FileChangeEvent event) {
+        if (!eventExecutor.offer(event)) {
+            log.debug("Event queue is full, keeping event pending: {}", event.getFilePath());
+            return false;
+        }
+        log.info("Queued file change event: {} ({} in queue)", event.getFilePath(), eventExecutor.getQueueDepth());
+        return true;
     }
 
     private void processFileChangeEvent(FileChangeEvent event) {
         Path filePath = event.getFilePath();
         Path watchedFolder = event.getWatchedFolder();
-        Long libraryId = pathToLibraryIdMap.get(watchedFolder);
+        Path root = findRoot(watchedFolder);
+        Long libraryId = root != null ? pathToLibraryIdMap.get(root) : null;
 
         if (libraryId != null) {
             try {
-                libraryProcessingService.processFile(event.getEventKind(), libraryId, watchedFolder.toString(), filePath.toString());
+                libraryProcessingService.processFile(event.getEventKind(), libraryId, root.toString(), filePath.toString());
             } catch (InvalidDataAccessApiUsageException e) {
                 log.debug("InvalidDataAccessApiUsageException - Library id: {}", libraryId);
             }
@@ -120,10 +434,60 @@ public class MonitoringService {
         }
     }
 
+    public void restorePendingEvents() {
+        List<PendingFileEventEntity> pendingEvents = pendingFileEventRepository.findAllByOrderByIdAsc();
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        pendingFileEventRepository.deleteAll(pendingEvents);
+        for (PendingFileEventEntity pendingEvent : pendingEvents) {
+            WatchEvent.Kind<?> eventKind = toEventKind(pendingEvent.getEventKind());
+            if (eventKind != null) {
+                handleFileChangeEvent(new FileChangeEvent(this, Path.of(pendingEvent.getFilePath()), eventKind, Path.of(pendingEvent.getWatchedFolder())));
+            }
+        }
+        log.info("Restored {} file change events queued before shutdown", pendingEvents.size());
+    }
+
+    private void persistPendingEvents() {
+        List<FileChangeEvent> pendingEvents = new ArrayList<>(eventCoalescer.shutdown());
+        pendingEvents.addAll(eventExecutor.shutdown(monitoringProperties.getEventShutdownGracePeriod()));
+        List<PendingFileEventEntity> entities = pendingEvents.stream()
+                .filter(event -> findRoot(event.getWatchedFolder()) != null)
+                .map(event -> PendingFileEventEntity.builder()
+                        .libraryId(pathToLibraryIdMap.get(findRoot(event.getWatchedFolder())))
+                        .watchedFolder(event.getWatchedFolder().toString())
+                        .filePath(event.getFilePath().toString())
+                        .eventKind(event.getEventKind().name())
+                        .queuedOn(Instant.now())
+                        .build())
+                .toList();
+        if (entities.isEmpty()) {
+            return;
+        }
+        try {
+            pendingFileEventRepository.saveAll(entities);
+            log.info("Persisted {} unprocessed file change events", entities.size());
+        } catch (Exception e) {
+            log.error("Unable to persist {} unprocessed file change events", entities.size(), e);
+        }
+    }
+
+    private static WatchEvent.Kind<?> toEventKind(String name) {
+        return switch (name) {
+            case "ENTRY_CREATE" -> StandardWatchEventKinds.ENTRY_CREATE;
+            case "ENTRY_MODIFY" -> StandardWatchEventKinds.ENTRY_MODIFY;
+            case "ENTRY_DELETE" -> StandardWatchEventKinds.ENTRY_DELETE;
+            default -> null;
+        };
+    }
+
     @PreDestroy
     public void stopMonitoring() {
         log.info("Shutting down monitoring service...");
-        singleThreadExecutor.shutdownNow();
+        rescanExecutor.shutdownNow();
+        pollingChangeDetector.shutdown();
+        persistPendingEvents();
         if (watchService != null) {
             try {
                 watchService.close();
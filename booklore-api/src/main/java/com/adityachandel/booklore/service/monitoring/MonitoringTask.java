@@ -35,6 +35,11 @@ public class MonitoringTask {
                 }
                 for (WatchEvent<?> event : key.pollEvents()) {
                     WatchEvent.Kind<?> kind = event.kind();
+                    if (kind == StandardWatchEventKinds.OVERFLOW) {
+                        log.warn("Watch events overflowed for {}", key.watchable());
+                        eventPublisher.publishEvent(new DirectoryChangeEvent(this, (Path) key.watchable(), kind));
+                        continue;
+                    }
                     Path fileName = (Path) event.context();
                     Path directory = (Path) key.watchable();
                     Path fullPath = directory.resolve(fileName);
@@ -42,12 +47,17 @@ public class MonitoringTask {
                     if (isPdfOrEpub(fileName)) {
                         log.info("Event kind: {}; File affected: {}; Full path: {}; Watched folder: {}", kind, fileName, fullPath, directory);
                         eventPublisher.publishEvent(new FileChangeEvent(this, fullPath, kind, directory));
+                    } else if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(fullPath, LinkOption.NOFOLLOW_LINKS)) {
+                        log.info("Directory created: {}", fullPath);
+                        eventPublisher.publishEvent(new DirectoryChangeEvent(this, fullPath, kind));
+                    } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                        eventPublisher.publishEvent(new DirectoryChangeEvent(this, fullPath, kind));
                     }
                 }
                 boolean valid = key.reset();
                 if (!valid) {
-                    log.warn("WatchKey is no longer valid. Stopping monitoring for {}", key.watchable());
-                    break;
+                    log.info("WatchKey is no longer valid for {}", key.watchable());
+                    eventPublisher.publishEvent(new DirectoryChangeEvent(this, (Path) key.watchable(), StandardWatchEventKinds.ENTRY_DELETE));
                 }
             }
         } catch (InterruptedException e) {
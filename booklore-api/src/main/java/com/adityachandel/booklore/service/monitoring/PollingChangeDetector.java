@@ -0,0 +1,234 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+@Slf4j
+public class PollingChangeDetector {
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration contentCheckInterval;
+    private final Consumer<FileChangeEvent> sink;
+    private final Consumer<DirectoryChangeEvent> directorySink;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Path, PolledRoot> roots = new ConcurrentHashMap<>();
+
+    public PollingChangeDetector(Duration minInterval, Duration maxInterval, Duration contentCheckInterval,
+                                 Consumer<FileChangeEvent> sink, Consumer<DirectoryChangeEvent> directorySink) {
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval.compareTo(minInterval) < 0 ? minInterval : maxInterval;
+        this.contentCheckInterval = contentCheckInterval;
+        this.sink = sink;
+        this.directorySink = directorySink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "watch-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void register(Path root) {
+        PolledRoot polledRoot = new PolledRoot(root);
+        if (roots.putIfAbsent(root, polledRoot) == null) {
+            polledRoot.schedule(Duration.ZERO);
+        }
+    }
+
+    public void unregister(Path root) {
+        PolledRoot polledRoot = roots.remove(root);
+        if (polledRoot != null) {
+            polledRoot.cancel();
+        }
+    }
+
+    public boolean isPolled(Path root) {
+        return roots.containsKey(root);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        roots.clear();
+    }
+
+    private record FileState(long size, long lastModified) {
+    }
+
+    private record DirectorySnapshot(long lastModified, Map<Path, FileState> files, Set<Path> subdirectories) {
+    }
+
+    private final class PolledRoot {
+        private final Path root;
+        private final Map<Path, DirectorySnapshot> snapshots = new HashMap<>();
+        private final List<DirectoryChangeEvent> removedDirectories = new ArrayList<>();
+        private final List<DirectoryChangeEvent> createdDirectories = new ArrayList<>();
+        private Duration interval = minInterval;
+        private boolean baseline = true;
+        private long lastContentCheckNanos;
+        private volatile ScheduledFuture<?> future;
+
+        private PolledRoot(Path root) {
+            this.root = root;
+        }
+
+        private void schedule(Duration delay) {
+            future = scheduler.schedule(this::poll, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        private void poll() {
+            if (roots.get(root) != this) {
+                return;
+            }
+            int changes = 0;
+            try {
+                if (Files.isDirectory(root)) {
+                    long now = System.nanoTime();
+                    boolean contentCheck = !baseline && now - lastContentCheckNanos >= contentCheckInterval.toNanos();
+                    changes = scan(root, !baseline, contentCheck);
+                    if (baseline || contentCheck) {
+                        lastContentCheckNanos = now;
+                    }
+                    baseline = false;
+                    removedDirectories.forEach(directorySink);
+                    createdDirectories.forEach(directorySink);
+                } else {
+                    log.warn("Polled library path {} is not available, keeping the previous snapshot", root);
+                }
+            } catch (Exception e) {
+                log.warn("Error while polling {}, error: {}", root, e.getMessage());
+            } finally {
+                removedDirectories.clear();
+                createdDirectories.clear();
+            }
+            interval = changes > 0 ? minInterval : min(interval.multipliedBy(2), maxInterval);
+            if (changes > 0) {
+                log.info("Detected {} changes under {}, next poll in {}", changes, root, interval);
+            }
+            if (roots.get(root) == this && !scheduler.isShutdown()) {
+                schedule(interval);
+            }
+        }
+
+        private int scan(Path directory, boolean emitting, boolean contentCheck) throws IOException {
+            long lastModified = Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS).toMillis();
+            DirectorySnapshot previous = snapshots.get(directory);
+            DirectorySnapshot current;
+            if (previous == null || previous.lastModified() != lastModified) {
+                current = list(directory, lastModified);
+            } else {
+                current = contentCheck ? refresh(directory, previous) : previous;
+            }
+            snapshots.put(directory, current);
+
+            int changes = 0;
+            Map<Path, FileState> previousFiles = previous != null ? previous.files() : Map.of();
+            for (Map.Entry<Path, FileState> file : current.files().entrySet()) {
+                FileState previousState = previousFiles.get(file.getKey());
+                if (previousState == null) {
+                    changes += emit(emitting, file.getKey(), StandardWatchEventKinds.ENTRY_CREATE, directory);
+                } else if (!previousState.equals(file.getValue())) {
+                    changes += emit(emitting, file.getKey(), StandardWatchEventKinds.ENTRY_MODIFY, directory);
+                }
+            }
+            for (Path file : previousFiles.keySet()) {
+                if (!current.files().containsKey(file)) {
+                    changes += emit(emitting, file, StandardWatchEventKinds.ENTRY_DELETE, directory);
+                }
+            }
+            if (previous != null) {
+                for (Path subdirectory : previous.subdirectories()) {
+                    if (!current.subdirectories().contains(subdirectory)) {
+                        forget(subdirectory);
+                        changes += emitDirectory(emitting, subdirectory, StandardWatchEventKinds.ENTRY_DELETE);
+                    }
+                }
+            }
+            for (Path subdirectory : current.subdirectories()) {
+                boolean created = previous != null && !previous.subdirectories().contains(subdirectory);
+                try {
+                    changes += scan(subdirectory, emitting && !created, contentCheck);
+                    if (created) {
+                        changes += emitDirectory(emitting, subdirectory, StandardWatchEventKinds.ENTRY_CREATE);
+                    }
+                } catch (IOException e) {
+                    log.warn("Unable to poll {}, error: {}", subdirectory, e.getMessage());
+                }
+            }
+            return changes;
+        }
+
+        private DirectorySnapshot refresh(Path directory, DirectorySnapshot previous) throws IOException {
+            Map<Path, FileState> files = new HashMap<>();
+            for (Path file : previous.files().keySet()) {
+                try {
+                    files.put(file, stateOf(Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)));
+                } catch (NoSuchFileException e) {
+                    return list(directory, previous.lastModified());
+                }
+            }
+            return new DirectorySnapshot(previous.lastModified(), files, previous.subdirectories());
+        }
+
+        private DirectorySnapshot list(Path directory, long lastModified) throws IOException {
+            Map<Path, FileState> files = new HashMap<>();
+            Set<Path> subdirectories = new HashSet<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isDirectory()) {
+                        subdirectories.add(entry);
+                    } else if (attributes.isRegularFile() && MonitoringService.isBookFile(entry)) {
+                        files.put(entry, stateOf(attributes));
+                    }
+                }
+            }
+            return new DirectorySnapshot(lastModified, files, subdirectories);
+        }
+
+        private void forget(Path directory) {
+            DirectorySnapshot snapshot = snapshots.remove(directory);
+            if (snapshot != null) {
+                snapshot.subdirectories().forEach(this::forget);
+            }
+        }
+
+        private int emit(boolean emitting, Path file, WatchEvent.Kind<?> kind, Path directory) {
+            if (!emitting) {
+                return 0;
+            }
+            sink.accept(new FileChangeEvent(PollingChangeDetector.this, file, kind, directory));
+            return 1;
+        }
+
+        private int emitDirectory(boolean emitting, Path directory, WatchEvent.Kind<?> kind) {
+            if (!emitting) {
+                return 0;
+            }
+            DirectoryChangeEvent event = new DirectoryChangeEvent(PollingChangeDetector.this, directory, kind);
+            (kind == StandardWatchEventKinds.ENTRY_DELETE ? removedDirectories : createdDirectories).add(event);
+            return 1;
+        }
+    }
+
+    private static FileState stateOf(BasicFileAttributes attributes) {
+        return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
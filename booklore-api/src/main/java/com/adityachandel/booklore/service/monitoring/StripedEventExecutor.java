@@ -0,0 +1,101 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+@Slf4j
+public class StripedEventExecutor {
+
+    private static final String QUEUE_DEPTH_METRIC = "booklore.watch.queue.depth";
+    private static final long POLL_INTERVAL_MILLIS = 200;
+
+    private final List<BlockingQueue<FileChangeEvent>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicReferenceArray<FileChangeEvent> inProgress;
+    private final Consumer<FileChangeEvent> handler;
+    private volatile boolean stopped;
+
+    public StripedEventExecutor(int stripes, int capacity, Consumer<FileChangeEvent> handler, MeterRegistry meterRegistry) {
+        this.handler = handler;
+        this.inProgress = new AtomicReferenceArray<>(stripes);
+        int stripeCapacity = Math.max(1, capacity / stripes);
+        for (int i = 0; i < stripes; i++) {
+            BlockingQueue<FileChangeEvent> queue = new ArrayBlockingQueue<>(stripeCapacity);
+            queues.add(queue);
+            Gauge.builder(QUEUE_DEPTH_METRIC, queue, BlockingQueue::size)
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+            int stripe = i;
+            Thread worker = new Thread(() -> work(stripe, queue), "watch-event-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+    }
+
+    public boolean offer(FileChangeEvent event) {
+        return !stopped && queues.get(stripeOf(event)).offer(event);
+    }
+
+    public int getQueueDepth() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    public List<FileChangeEvent> shutdown(Duration gracePeriod) {
+        stopped = true;
+        List<FileChangeEvent> events = new ArrayList<>();
+        queues.forEach(queue -> queue.drainTo(events));
+        long deadline = System.nanoTime() + gracePeriod.toNanos();
+        for (int i = 0; i < workers.size(); i++) {
+            Thread worker = workers.get(i);
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                FileChangeEvent event = inProgress.get(i);
+                log.warn("Interrupting file change event still in progress after {}: {}", gracePeriod, event != null ? event.getFilePath() : null);
+                worker.interrupt();
+            }
+        }
+        return events;
+    }
+
+    private int stripeOf(FileChangeEvent event) {
+        return Math.floorMod(event.getFilePath().hashCode(), queues.size());
+    }
+
+    private void work(int stripe, BlockingQueue<FileChangeEvent> queue) {
+        while (!stopped && !Thread.currentThread().isInterrupted()) {
+            FileChangeEvent event;
+            try {
+                event = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event == null) {
+                continue;
+            }
+            inProgress.set(stripe, event);
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                log.error("Error while processing file change event {}, error: {}", event.getFilePath(), e.getMessage());
+            } finally {
+                inProgress.set(stripe, null);
+            }
+        }
+    }
+}
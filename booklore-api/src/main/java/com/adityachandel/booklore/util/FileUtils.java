@@ -1,16 +1,48 @@
 package com.adityachandel.booklore.util;
 
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.entity.BookEntity;
 
+import net.openhft.hashing.LongHashFunction;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Optional;
 
 public class FileUtils {
 
+    private static final int CONTENT_HASH_SAMPLE_SIZE = 64 * 1024;
+
     public static String getBookFullPath(BookEntity bookEntity) {
         return bookEntity.getLibraryPath().getPath() + "/" + bookEntity.getFileSubPath() + "/" + bookEntity.getFileName();
     }
 
+    public static String getFileFullPath(LibraryFile libraryFile) {
+        return libraryFile.getLibraryPathEntity().getPath() + "/" + libraryFile.getFileSubPath() + "/" + libraryFile.getFileName();
+    }
+
+    public static void setFileAttributes(LibraryFile libraryFile, BasicFileAttributes attributes) {
+        libraryFile.setFileSize(attributes.size());
+        libraryFile.setFileLastModified(attributes.lastModifiedTime().toMillis());
+        libraryFile.setFileKey(attributes.fileKey() != null ? attributes.fileKey().toString() : null);
+    }
+
+    public static long computeContentHash(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headSize = Math.min(size, CONTENT_HASH_SAMPLE_SIZE);
+            long hash = LongHashFunction.xx3(size).hashBytes(channel.map(FileChannel.MapMode.READ_ONLY, 0, headSize));
+            if (size > headSize) {
+                long tailSize = Math.min(size - headSize, CONTENT_HASH_SAMPLE_SIZE);
+                hash = LongHashFunction.xx3(hash).hashBytes(channel.map(FileChannel.MapMode.READ_ONLY, size - tailSize, tailSize));
+            }
+            return hash;
+        }
+    }
+
     public static String getRelativeSubPath(String basePath, Path fullFilePath) {
         return Optional.ofNullable(Path.of(basePath)
                         .relativize(fullFilePath)
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS pending_book_removal
+(
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    library_id     BIGINT    NOT NULL,
+    book_id        BIGINT    NOT NULL,
+    books_in_scope INT       NOT NULL,
+    detected_on    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_pending_book_removal UNIQUE (library_id, book_id),
+    CONSTRAINT fk_pending_book_removal_library FOREIGN KEY (library_id) REFERENCES library (id) ON DELETE CASCADE,
+    CONSTRAINT fk_pending_book_removal_book FOREIGN KEY (book_id) REFERENCES book (id) ON DELETE CASCADE
+);
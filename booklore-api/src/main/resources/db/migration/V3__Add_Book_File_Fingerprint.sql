@@ -0,0 +1,4 @@
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS file_size          BIGINT       NULL,
+    ADD COLUMN IF NOT EXISTS file_last_modified BIGINT       NULL,
+    ADD COLUMN IF NOT EXISTS file_key           VARCHAR(255) NULL;
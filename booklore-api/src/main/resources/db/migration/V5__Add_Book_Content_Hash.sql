@@ -0,0 +1,4 @@
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS content_hash BIGINT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_book_content_hash ON book (library_id, content_hash);
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS quarantined_file
+(
+    id                 BIGINT AUTO_INCREMENT PRIMARY KEY,
+    library_id         BIGINT       NOT NULL,
+    library_path_id    BIGINT       NOT NULL,
+    file_name          VARCHAR(255) NOT NULL,
+    file_sub_path      VARCHAR(512) NOT NULL,
+    file_size          BIGINT       NULL,
+    file_last_modified BIGINT       NULL,
+    reason             VARCHAR(32)  NOT NULL,
+    error_message      TEXT         NULL,
+    elapsed_millis     BIGINT       NOT NULL,
+    attempts           INT          NOT NULL DEFAULT 1,
+    quarantined_on     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_quarantined_file_library FOREIGN KEY (library_id) REFERENCES library (id) ON DELETE CASCADE,
+    CONSTRAINT fk_quarantined_file_library_path FOREIGN KEY (library_path_id) REFERENCES library_path (id) ON DELETE CASCADE,
+    CONSTRAINT unique_quarantined_file_library UNIQUE (file_name, library_id)
+);
@@ -0,0 +1,34 @@
+CREATE TABLE IF NOT EXISTS scan_job
+(
+    id                         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    library_id                 BIGINT        NOT NULL,
+    type                       VARCHAR(32)   NOT NULL,
+    status                     VARCHAR(32)   NOT NULL,
+    discovered                 INT           NOT NULL DEFAULT 0,
+    processed                  INT           NOT NULL DEFAULT 0,
+    skipped                    INT           NOT NULL DEFAULT 0,
+    failed                     INT           NOT NULL DEFAULT 0,
+    bytes_read                 BIGINT        NOT NULL DEFAULT 0,
+    checkpoint_library_path_id BIGINT        NULL,
+    checkpoint_path            VARCHAR(1024) NULL,
+    error_message              TEXT          NULL,
+    started_on                 TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_on                 TIMESTAMP     NULL,
+    finished_on                TIMESTAMP     NULL,
+
+    CONSTRAINT fk_scan_job_library FOREIGN KEY (library_id) REFERENCES library (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_scan_job_status ON scan_job (status);
+
+CREATE TABLE IF NOT EXISTS pending_file_event
+(
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    library_id     BIGINT        NOT NULL,
+    watched_folder VARCHAR(1024) NOT NULL,
+    file_path      VARCHAR(1024) NOT NULL,
+    event_kind     VARCHAR(32)   NOT NULL,
+    queued_on      TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_pending_file_event_library FOREIGN KEY (library_id) REFERENCES library (id) ON DELETE CASCADE
+);
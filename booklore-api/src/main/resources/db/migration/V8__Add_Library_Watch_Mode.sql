@@ -0,0 +1,2 @@
+ALTER TABLE library
+    ADD COLUMN IF NOT EXISTS watch_mode VARCHAR(16) NOT NULL DEFAULT 'NATIVE';
@@ -0,0 +1,3 @@
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS metadata_hash BIGINT NULL,
+    ADD COLUMN IF NOT EXISTS cover_hash    BIGINT NULL;
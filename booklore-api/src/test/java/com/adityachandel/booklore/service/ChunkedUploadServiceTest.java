@@ -0,0 +1,215 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.UploadProperties;
+import com.adityachandel.booklore.exception.APIException;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.UploadSession;
+import com.adityachandel.booklore.model.dto.request.CreateUploadRequest;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.service.ingestion.InFlightFileRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    private static final long LIBRARY_ID = 1L;
+    private static final long PATH_ID = 10L;
+    private static final byte[] CONTENT = "chunked upload content".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private FileUploadService fileUploadService;
+
+    @TempDir
+    Path libraryPath;
+
+    private final InFlightFileRegistry inFlightFileRegistry = new InFlightFileRegistry();
+    private ChunkedUploadService chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        UploadProperties uploadProperties = new UploadProperties();
+        uploadProperties.setMaxFileSize(DataSize.ofKilobytes(1));
+        chunkedUploadService = new ChunkedUploadService(uploadProperties, fileUploadService, inFlightFileRegistry);
+    }
+
+    @Test
+    void rejectsInvalidFileNames() {
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.createUpload(request("../book.epub", CONTENT.length, null)));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.createUpload(request("notes.txt", CONTENT.length, null)));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.createUpload(request(" ", CONTENT.length, null)));
+    }
+
+    @Test
+    void rejectsFilesOverTheSizeLimit() {
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.createUpload(request("book.epub", 2048, null)));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.createUpload(request("book.epub", 0, null)));
+    }
+
+    @Test
+    void rejectsExistingTargets() throws IOException {
+        stubLibrary();
+        Files.writeString(libraryPath.resolve("book.epub"), "existing");
+
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.createUpload(request("book.epub", CONTENT.length, null)));
+    }
+
+    @Test
+    void appendsChunksAtTheExpectedOffset() throws Exception {
+        UploadSession session = create(null);
+
+        UploadSession afterFirst = chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, 7));
+        assertEquals(7, afterFirst.getOffset());
+
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, 7)));
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.appendChunk(session.getId(), 10, chunk(10, CONTENT.length)));
+
+        UploadSession afterSecond = chunkedUploadService.appendChunk(session.getId(), 7, chunk(7, CONTENT.length));
+        assertEquals(CONTENT.length, afterSecond.getOffset());
+        assertEquals(CONTENT.length, chunkedUploadService.getUpload(session.getId()).getOffset());
+    }
+
+    @Test
+    void rejectsChunksPastTheDeclaredSize() {
+        UploadSession session = create(null);
+        byte[] oversized = new byte[CONTENT.length + 1];
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.appendChunk(session.getId(), 0, new ByteArrayInputStream(oversized)));
+        assertEquals(0, chunkedUploadService.getUpload(session.getId()).getOffset());
+    }
+
+    @Test
+    void completionRequiresAllBytes() {
+        UploadSession session = create(null);
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, 5));
+
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.completeUpload(session.getId()));
+        verify(fileUploadService, never()).importClaimedFile(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void completesAndImportsAVerifiedUpload() throws Exception {
+        UploadSession session = create(sha256(CONTENT));
+        Book book = new Book();
+        Path target = libraryPath.resolve("book.epub");
+        when(fileUploadService.importClaimedFile(LIBRARY_ID, PATH_ID, target, BookFileType.EPUB)).thenReturn(book);
+
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, CONTENT.length));
+
+        assertSame(book, chunkedUploadService.completeUpload(session.getId()));
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertEquals(List.of(target), listLibraryPath());
+        assertFalse(inFlightFileRegistry.tryClaim(target));
+        assertStatus(HttpStatus.NOT_FOUND, () -> chunkedUploadService.getUpload(session.getId()));
+    }
+
+    @Test
+    void discardsUploadsWithAMismatchedChecksum() throws Exception {
+        UploadSession session = create(sha256("something else".getBytes(StandardCharsets.UTF_8)));
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, CONTENT.length));
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> chunkedUploadService.completeUpload(session.getId()));
+        assertTrue(listLibraryPath().isEmpty());
+        assertStatus(HttpStatus.NOT_FOUND, () -> chunkedUploadService.getUpload(session.getId()));
+    }
+
+    @Test
+    void doesNotPublishOverAClaimedTarget() throws Exception {
+        UploadSession session = create(null);
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, CONTENT.length));
+        Path target = libraryPath.resolve("book.epub");
+        inFlightFileRegistry.tryClaim(target);
+
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.completeUpload(session.getId()));
+        assertFalse(Files.exists(target));
+        assertEquals(CONTENT.length, chunkedUploadService.getUpload(session.getId()).getOffset());
+    }
+
+    @Test
+    void doesNotOverwriteATargetCreatedDuringTheUpload() throws Exception {
+        UploadSession session = create(null);
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, CONTENT.length));
+        Path target = Files.writeString(libraryPath.resolve("book.epub"), "existing");
+
+        assertStatus(HttpStatus.CONFLICT, () -> chunkedUploadService.completeUpload(session.getId()));
+        assertEquals("existing", Files.readString(target));
+        assertEquals(List.of(target), listLibraryPath());
+        assertTrue(inFlightFileRegistry.tryClaim(target));
+    }
+
+    @Test
+    void abortDeletesTheTemporaryFile() throws IOException {
+        UploadSession session = create(null);
+        chunkedUploadService.appendChunk(session.getId(), 0, chunk(0, 5));
+
+        chunkedUploadService.abortUpload(session.getId());
+
+        assertTrue(listLibraryPath().isEmpty());
+        assertStatus(HttpStatus.NOT_FOUND, () -> chunkedUploadService.getUpload(session.getId()));
+    }
+
+    private UploadSession create(String checksum) {
+        stubLibrary();
+        UploadSession session = chunkedUploadService.createUpload(request("book.epub", CONTENT.length, checksum));
+        assertEquals(0, session.getOffset());
+        return session;
+    }
+
+    private void stubLibrary() {
+        LibraryPathEntity libraryPathEntity = LibraryPathEntity.builder().id(PATH_ID).path(libraryPath.toString()).build();
+        LibraryEntity libraryEntity = LibraryEntity.builder().id(LIBRARY_ID).libraryPaths(List.of(libraryPathEntity)).build();
+        when(fileUploadService.findLibrary(LIBRARY_ID)).thenReturn(libraryEntity);
+        when(fileUploadService.findLibraryPath(libraryEntity, PATH_ID)).thenReturn(libraryPathEntity);
+    }
+
+    private List<Path> listLibraryPath() throws IOException {
+        try (Stream<Path> files = Files.list(libraryPath)) {
+            return files.toList();
+        }
+    }
+
+    private static CreateUploadRequest request(String fileName, long fileSize, String checksum) {
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setLibraryId(LIBRARY_ID);
+        request.setPathId(PATH_ID);
+        request.setFileName(fileName);
+        request.setFileSize(fileSize);
+        request.setChecksum(checksum);
+        return request;
+    }
+
+    private static ByteArrayInputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(CONTENT, from, to - from);
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private static void assertStatus(HttpStatus status, Runnable action) {
+        APIException exception = assertThrows(APIException.class, action::run);
+        assertEquals(status, exception.getStatus());
+    }
+}
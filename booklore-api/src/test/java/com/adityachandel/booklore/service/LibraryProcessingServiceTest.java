@@ -0,0 +1,433 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookFingerprint;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.repository.QuarantinedFileRepository;
+import com.adityachandel.booklore.service.fileprocessor.RegionHashes;
+import com.adityachandel.booklore.service.ingestion.CoverGenerationQueue;
+import com.adityachandel.booklore.service.ingestion.IngestionStats;
+import com.adityachandel.booklore.service.ingestion.LibraryFileSource;
+import com.adityachandel.booklore.service.ingestion.LibraryIngestionPipeline;
+import com.adityachandel.booklore.service.ingestion.ScanJobTracker;
+import com.adityachandel.booklore.util.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryProcessingServiceTest {
+
+    private static final long LIBRARY_ID = 1L;
+    private static final long PATH_ID = 10L;
+
+    @Mock
+    private LibraryRepository libraryRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private LibraryIngestionPipeline ingestionPipeline;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private PendingBookRemovals pendingBookRemovals;
+    @Mock
+    private BookMapper bookMapper;
+    @Mock
+    private QuarantinedFileRepository quarantinedFileRepository;
+    @Mock
+    private ScanJobTracker scanJobTracker;
+    @Mock
+    private RemovalGuard removalGuard;
+    @Mock
+    private CoverGenerationQueue coverGenerationQueue;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    private LibraryProcessingService libraryProcessingService;
+    private LibraryEntity libraryEntity;
+    private LibraryPathEntity libraryPathEntity;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        libraryProcessingService = new LibraryProcessingService(libraryRepository, notificationService, ingestionPipeline, bookRepository,
+                pendingBookRemovals, bookMapper, quarantinedFileRepository, scanJobTracker, removalGuard,
+                new TransactionTemplate(transactionManager), coverGenerationQueue);
+        libraryPathEntity = LibraryPathEntity.builder().id(PATH_ID).path(root.toString()).build();
+        libraryEntity = LibraryEntity.builder().id(LIBRARY_ID).name("Books").libraryPaths(List.of(libraryPathEntity)).build();
+        lenient().when(libraryRepository.findById(LIBRARY_ID)).thenReturn(Optional.of(libraryEntity));
+    }
+
+    @Test
+    void movedSubPathReplacesTheDirectoryPrefix() {
+        assertEquals("b", LibraryProcessingService.movedSubPath("a", "a", "b"));
+        assertEquals("b/c", LibraryProcessingService.movedSubPath("a/c", "a", "b"));
+        assertEquals("x/y/c/d", LibraryProcessingService.movedSubPath("a/c/d", "a", "x/y"));
+    }
+
+    @Test
+    void movedSubPathHandlesMovesToTheRoot() {
+        assertEquals("", LibraryProcessingService.movedSubPath("a", "a", ""));
+        assertEquals("c", LibraryProcessingService.movedSubPath("a/c", "a", ""));
+    }
+
+    @Test
+    void movedSubPathHandlesMovesFromTheRoot() {
+        assertEquals("b", LibraryProcessingService.movedSubPath("", "", "b"));
+        assertEquals("b/c", LibraryProcessingService.movedSubPath("c", "", "b"));
+    }
+
+    @Test
+    void moveDirectoryUpdatesEverySubPathUnderTheMovedDirectory() throws IOException {
+        Path to = root.resolve("renamed");
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                fingerprint(1L, "author", "one.epub", write(to.resolve("one.epub"), "one")),
+                fingerprint(2L, "author/series", "two.epub", write(to.resolve("series/two.epub"), "two")),
+                fingerprint(3L, "authors", "other.epub", null)));
+        when(bookRepository.updateSubPath(anyLong(), any(), any())).thenReturn(1);
+
+        int moved = libraryProcessingService.moveDirectory(LIBRARY_ID, root.toString(), root.resolve("author"), to);
+
+        assertEquals(2, moved);
+        verify(bookRepository).updateSubPath(PATH_ID, "author", "renamed");
+        verify(bookRepository).updateSubPath(PATH_ID, "author/series", "renamed/series");
+        verify(bookRepository, never()).updateSubPath(anyLong(), eq("authors"), any());
+        verify(pendingBookRemovals).cancel(1L);
+        verify(pendingBookRemovals).cancel(2L);
+    }
+
+    @Test
+    void moveDirectoryToTheRootLeavesNoLeadingSeparator() throws IOException {
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                fingerprint(1L, "author", "one.epub", write(root.resolve("one.epub"), "one")),
+                fingerprint(2L, "author/series", "two.epub", write(root.resolve("series/two.epub"), "two"))));
+        when(bookRepository.updateSubPath(anyLong(), any(), any())).thenReturn(1);
+
+        libraryProcessingService.moveDirectory(LIBRARY_ID, root.toString(), root.resolve("author"), root);
+
+        verify(bookRepository).updateSubPath(PATH_ID, "author", "");
+        verify(bookRepository).updateSubPath(PATH_ID, "author/series", "series");
+    }
+
+    @Test
+    void moveDirectoryRejectsDirectoriesWithDifferentContent() throws IOException {
+        Path to = root.resolve("unrelated");
+        write(to.resolve("one.epub"), "something else");
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                fingerprint(1L, "author", "one.epub", write(root.resolve("original/one.epub"), "one"))));
+
+        assertEquals(-1, libraryProcessingService.moveDirectory(LIBRARY_ID, root.toString(), root.resolve("author"), to));
+        verify(bookRepository, never()).updateSubPath(anyLong(), any(), any());
+    }
+
+    @Test
+    void rescanIngestsOnlyAddedAndChangedFilesAndRemovesMissingBooks() throws IOException {
+        Path kept = write(root.resolve("a/kept.epub"), "kept");
+        write(root.resolve("a/changed.epub"), "changed content");
+        write(root.resolve("added.epub"), "a newly added book");
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                fingerprint(1L, "a", "kept.epub", kept),
+                new Fingerprint(2L, "changed.epub", "a", PATH_ID, 1L, 0L, null, null),
+                new Fingerprint(3L, "removed.epub", "a", PATH_ID, 100L, 0L, null, 42L)));
+        List<LibraryFile> ingested = captureIngested();
+        admitAllRemovals();
+
+        libraryProcessingService.rescanDirectory(LIBRARY_ID, root.toString(), root);
+
+        Map<String, Long> ingestedBookIds = new HashMap<>();
+        ingested.forEach(libraryFile -> ingestedBookIds.put(libraryFile.getFileName(), libraryFile.getBookId()));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("added.epub", null);
+        expected.put("changed.epub", 2L);
+        assertEquals(expected, ingestedBookIds);
+        verify(bookRepository).deleteByIdIn(Set.of(3L));
+        verify(bookRepository, never()).updateLocation(anyLong(), any(), any(), any());
+        verify(bookRepository, never()).updateFingerprint(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rescanBackfillsMissingFingerprintsWithoutReingesting() throws IOException {
+        Path kept = write(root.resolve("kept.epub"), "kept");
+        long lastModified = Files.getLastModifiedTime(kept).toMillis();
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                new Fingerprint(1L, "kept.epub", "", PATH_ID, 4L, lastModified, null, null)));
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.rescanDirectory(LIBRARY_ID, root.toString(), root);
+
+        assertTrue(ingested.isEmpty());
+        verify(bookRepository).updateFingerprint(eq(1L), eq(4L), eq(lastModified), any(), eq(FileUtils.computeContentHash(kept)));
+        verify(bookRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void rescanRelocatesRenamedBooksByContent() throws IOException {
+        Path renamed = write(root.resolve("b/renamed.epub"), "renamed content");
+        long contentHash = FileUtils.computeContentHash(renamed);
+        when(bookRepository.findFingerprintsByLibraryId(LIBRARY_ID)).thenReturn(List.of(
+                new Fingerprint(5L, "old.epub", "a", PATH_ID, Files.size(renamed), 0L, null, contentHash)));
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.rescanDirectory(LIBRARY_ID, root.toString(), root);
+
+        assertTrue(ingested.isEmpty());
+        verify(bookRepository).updateLocation(5L, libraryPathEntity, "b", "renamed.epub");
+        verify(bookRepository).updateFingerprint(eq(5L), eq(Files.size(renamed)), any(), any(), eq(contentHash));
+        verify(pendingBookRemovals).cancel(5L);
+        verify(bookRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void createIngestsUnknownFiles() throws IOException {
+        Path file = write(root.resolve("new/book.epub"), "new book");
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.empty());
+        when(bookRepository.findByLibraryIdAndFileSizeAndContentHash(LIBRARY_ID, Files.size(file), FileUtils.computeContentHash(file))).thenReturn(List.of());
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_CREATE, LIBRARY_ID, root.toString(), file.toString());
+
+        assertEquals(1, ingested.size());
+        assertEquals("new", ingested.getFirst().getFileSubPath());
+        assertNull(ingested.getFirst().getBookId());
+        verifyNoInteractions(pendingBookRemovals);
+    }
+
+    @Test
+    void createRelocatesMovedBooksByContent() throws IOException {
+        Path file = write(root.resolve("new/moved.epub"), "moved book");
+        long contentHash = FileUtils.computeContentHash(file);
+        BookEntity book = book(7L, "old", "book.epub", Files.size(file), contentHash);
+        when(bookRepository.findBookByFileNameAndLibraryId("moved.epub", LIBRARY_ID)).thenReturn(Optional.empty());
+        when(bookRepository.findByLibraryIdAndFileSizeAndContentHash(LIBRARY_ID, Files.size(file), contentHash)).thenReturn(List.of(book));
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+        when(bookMapper.toBook(book)).thenReturn(new Book());
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_CREATE, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(bookRepository).updateLocation(7L, libraryPathEntity, "new", "moved.epub");
+        verify(bookRepository).updateFingerprint(eq(7L), eq(Files.size(file)), any(), any(), eq(contentHash));
+        verify(pendingBookRemovals).cancel(7L);
+        verify(ingestionPipeline, never()).ingest(any(LibraryFileSource.class));
+    }
+
+    @Test
+    void createTreatsCopiesAsNewBooks() throws IOException {
+        write(root.resolve("old/book.epub"), "copied book");
+        Path file = write(root.resolve("copy/copy.epub"), "copied book");
+        long contentHash = FileUtils.computeContentHash(file);
+        when(bookRepository.findBookByFileNameAndLibraryId("copy.epub", LIBRARY_ID)).thenReturn(Optional.empty());
+        when(bookRepository.findByLibraryIdAndFileSizeAndContentHash(LIBRARY_ID, Files.size(file), contentHash))
+                .thenReturn(List.of(book(7L, "old", "book.epub", Files.size(file), contentHash)));
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_CREATE, LIBRARY_ID, root.toString(), file.toString());
+
+        assertEquals(1, ingested.size());
+        assertNull(ingested.getFirst().getBookId());
+        verify(bookRepository, never()).updateLocation(anyLong(), any(), any(), any());
+        verifyNoInteractions(pendingBookRemovals);
+    }
+
+    @Test
+    void createReingestsABookRewrittenAtItsOwnPath() throws IOException {
+        Path file = write(root.resolve("book.epub"), "rewritten");
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book(8L, "", "book.epub", 3L, 1L)));
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_CREATE, LIBRARY_ID, root.toString(), file.toString());
+
+        assertEquals(1, ingested.size());
+        assertEquals(8L, ingested.getFirst().getBookId());
+        verify(pendingBookRemovals).cancel(8L);
+        verify(bookRepository, never()).updateLocation(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void deleteSchedulesRemovalOfMissingBooks() {
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book(8L, "", "book.epub", 3L, 1L)));
+        when(removalGuard.isAvailable(libraryPathEntity)).thenReturn(true);
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_DELETE, LIBRARY_ID, root.toString(), root.resolve("book.epub").toString());
+
+        ArgumentCaptor<Runnable> removal = ArgumentCaptor.forClass(Runnable.class);
+        verify(pendingBookRemovals).schedule(eq(8L), removal.capture());
+        removal.getValue().run();
+        verify(bookRepository).deleteByIdIn(Set.of(8L));
+    }
+
+    @Test
+    void deleteKeepsBooksWhoseFileStillExists() throws IOException {
+        Path file = write(root.resolve("book.epub"), "book");
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book(8L, "", "book.epub", 4L, 1L)));
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_DELETE, LIBRARY_ID, root.toString(), file.toString());
+
+        verifyNoInteractions(pendingBookRemovals);
+    }
+
+    @Test
+    void deleteKeepsBooksOnUnavailablePaths() {
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book(8L, "", "book.epub", 3L, 1L)));
+        when(removalGuard.isAvailable(libraryPathEntity)).thenReturn(false);
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_DELETE, LIBRARY_ID, root.toString(), root.resolve("book.epub").toString());
+
+        verifyNoInteractions(pendingBookRemovals);
+    }
+
+    @Test
+    void modifyReingestsMetadataChangesAndKeepsAnUnchangedCover() throws IOException {
+        Path file = modifiedBook(10L, 2L, null);
+        List<LibraryFile> ingested = captureIngested();
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        assertEquals(1, ingested.size());
+        assertEquals(8L, ingested.getFirst().getBookId());
+        assertTrue(ingested.getFirst().isSkipCover());
+        verify(bookRepository).updateRegionHashes(8L, 1L, 2L);
+        verifyNoInteractions(coverGenerationQueue);
+    }
+
+    @Test
+    void modifyQueuesCoverOnlyChanges() throws IOException {
+        Path file = modifiedBook(1L, 20L, null);
+        when(coverGenerationQueue.enqueue(eq(8L), any())).thenReturn(true);
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(ingestionPipeline, never()).ingest(any(LibraryFileSource.class));
+        verify(bookRepository).updateRegionHashes(8L, 1L, 2L);
+        verify(bookRepository, never()).updateRegionHashes(8L, 1L, null);
+    }
+
+    @Test
+    void modifyClearsTheCoverHashWhenTheCoverQueueIsFull() throws IOException {
+        Path file = modifiedBook(1L, 20L, null);
+        when(coverGenerationQueue.enqueue(eq(8L), any())).thenReturn(false);
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(bookRepository).updateRegionHashes(8L, 1L, null);
+    }
+
+    @Test
+    void modifySkipsRefreshWhenAllFieldsAreLocked() throws IOException {
+        Path file = modifiedBook(10L, 20L, BookMetadataEntity.builder().allFieldsLocked(true).build());
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(bookRepository).updateFingerprint(eq(8L), eq(Files.size(file)), any(), any(), eq(FileUtils.computeContentHash(file)));
+        verify(bookRepository).updateRegionHashes(8L, 1L, 2L);
+        verify(ingestionPipeline, never()).ingest(any(LibraryFileSource.class));
+        verifyNoInteractions(coverGenerationQueue);
+    }
+
+    @Test
+    void modifySkipsCoverRefreshWhenTheCoverIsLocked() throws IOException {
+        Path file = modifiedBook(1L, 20L, BookMetadataEntity.builder().coverLocked(true).build());
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(ingestionPipeline, never()).ingest(any(LibraryFileSource.class));
+        verifyNoInteractions(coverGenerationQueue);
+    }
+
+    @Test
+    void modifyIgnoresFilesWithAnUnchangedFingerprint() throws IOException {
+        Path file = write(root.resolve("book.epub"), "book");
+        BookEntity book = book(8L, "", "book.epub", Files.size(file), 1L);
+        book.setFileLastModified(Files.getLastModifiedTime(file).toMillis());
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book));
+
+        libraryProcessingService.processFile(StandardWatchEventKinds.ENTRY_MODIFY, LIBRARY_ID, root.toString(), file.toString());
+
+        verify(ingestionPipeline, never()).hashRegions(any());
+        verify(bookRepository, never()).updateFingerprint(anyLong(), any(), any(), any(), any());
+    }
+
+    private Path modifiedBook(Long metadataHash, Long coverHash, BookMetadataEntity metadata) throws IOException {
+        Path file = write(root.resolve("book.epub"), "modified book");
+        BookEntity book = book(8L, "", "book.epub", 1L, 1L);
+        book.setMetadataHash(metadataHash);
+        book.setCoverHash(coverHash);
+        book.setMetadata(metadata);
+        when(bookRepository.findBookByFileNameAndLibraryId("book.epub", LIBRARY_ID)).thenReturn(Optional.of(book));
+        when(ingestionPipeline.hashRegions(any())).thenReturn(new RegionHashes(1L, 2L));
+        return file;
+    }
+
+    private BookEntity book(long id, String subPath, String fileName, long fileSize, long contentHash) {
+        return BookEntity.builder()
+                .id(id)
+                .library(libraryEntity)
+                .libraryPath(libraryPathEntity)
+                .fileSubPath(subPath)
+                .fileName(fileName)
+                .fileSize(fileSize)
+                .contentHash(contentHash)
+                .build();
+    }
+
+    private List<LibraryFile> captureIngested() throws IOException {
+        List<LibraryFile> ingested = new ArrayList<>();
+        when(ingestionPipeline.ingest(any(LibraryFileSource.class))).thenAnswer(invocation -> {
+            invocation.<LibraryFileSource>getArgument(0).forEach(ingested::add);
+            return new IngestionStats();
+        });
+        return ingested;
+    }
+
+    private void admitAllRemovals() {
+        when(removalGuard.admit(any(), any(), anyInt())).thenAnswer(invocation -> invocation.<Collection<BookFingerprint>>getArgument(1).stream()
+                .map(BookFingerprint::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private static BookFingerprint fingerprint(long id, String subPath, String fileName, Path content) throws IOException {
+        Long size = content != null ? Files.size(content) : null;
+        Long contentHash = content != null ? FileUtils.computeContentHash(content) : null;
+        Long lastModified = content != null ? Files.getLastModifiedTime(content).toMillis() : null;
+        return new Fingerprint(id, fileName, subPath, PATH_ID, size, lastModified, null, contentHash);
+    }
+
+    private record Fingerprint(Long getId, String getFileName, String getFileSubPath, Long getLibraryPathId,
+                               Long getFileSize, Long getFileLastModified, String getFileKey, Long getContentHash) implements BookFingerprint {
+    }
+}
@@ -0,0 +1,213 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.dto.BookFingerprint;
+import com.adityachandel.booklore.model.dto.PendingRemoval;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.entity.PendingBookRemovalEntity;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.repository.PendingBookRemovalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RemovalGuardTest {
+
+    private static final long LIBRARY_ID = 1L;
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private PendingBookRemovalRepository pendingBookRemovalRepository;
+    @Mock
+    private LibraryRepository libraryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    private RemovalGuard removalGuard;
+
+    @BeforeEach
+    void setUp() {
+        IngestionProperties ingestionProperties = new IngestionProperties();
+        ingestionProperties.setMaxRemovedFraction(0.5);
+        ingestionProperties.setRemovalGuardMinBooks(10);
+        removalGuard = new RemovalGuard(bookRepository, ingestionProperties, notificationService,
+                pendingBookRemovalRepository, libraryRepository, transactionManager);
+        removalGuard.init();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void mountedPathWithFilesIsAvailable() throws IOException {
+        LibraryPathEntity path = mountedPath(10L);
+        assertTrue(removalGuard.isAvailable(path));
+    }
+
+    @Test
+    void missingPathIsUnavailable() {
+        assertFalse(removalGuard.isAvailable(LibraryPathEntity.builder().id(10L).path(root.resolve("missing").toString()).build()));
+    }
+
+    @Test
+    void emptyPathIsUnavailableOnlyWhenItHadBooks() {
+        LibraryPathEntity path = LibraryPathEntity.builder().id(10L).path(root.toString()).build();
+
+        when(bookRepository.existsByLibraryPathId(10L)).thenReturn(true);
+        assertFalse(removalGuard.isAvailable(path));
+
+        when(bookRepository.existsByLibraryPathId(10L)).thenReturn(false);
+        assertTrue(removalGuard.isAvailable(path));
+    }
+
+    @Test
+    void admitsRemovalsBelowTheFraction() throws IOException {
+        LibraryEntity library = library(mountedPath(10L));
+
+        Set<Long> admitted = removalGuard.admit(library, fingerprints(10L, 1, 20), 100);
+
+        assertEquals(ids(1, 20), admitted);
+        verifyNoInteractions(pendingBookRemovalRepository, notificationService);
+    }
+
+    @Test
+    void admitsSmallRemovalsRegardlessOfTheFraction() throws IOException {
+        LibraryEntity library = library(mountedPath(10L));
+
+        assertEquals(ids(1, 10), removalGuard.admit(library, fingerprints(10L, 1, 10), 10));
+    }
+
+    @Test
+    void keepsBooksOnUnavailablePaths() throws IOException {
+        LibraryPathEntity missing = LibraryPathEntity.builder().id(20L).path(root.resolve("missing").toString()).build();
+        LibraryEntity library = library(mountedPath(10L), missing);
+        List<BookFingerprint> removed = new ArrayList<>(fingerprints(10L, 1, 5));
+        removed.addAll(fingerprints(20L, 6, 50));
+
+        assertEquals(ids(1, 5), removalGuard.admit(library, removed, 100));
+    }
+
+    @Test
+    void defersRemovalsAboveTheFraction() throws IOException {
+        LibraryEntity library = library(mountedPath(10L));
+        when(pendingBookRemovalRepository.findByLibraryId(LIBRARY_ID)).thenReturn(List.of());
+
+        Set<Long> admitted = removalGuard.admit(library, fingerprints(10L, 1, 30), 40);
+
+        assertTrue(admitted.isEmpty());
+        List<PendingBookRemovalEntity> saved = captureSaved();
+        assertEquals(ids(1, 30), saved.stream().map(PendingBookRemovalEntity::getBookId).collect(Collectors.toSet()));
+        assertTrue(saved.stream().allMatch(entity -> entity.getLibraryId() == LIBRARY_ID && entity.getBooksInScope() == 40));
+        verify(notificationService).sendMessage(any(), any());
+    }
+
+    @Test
+    void mergesNewRemovalsIntoThePendingSet() throws IOException {
+        LibraryEntity library = library(mountedPath(10L));
+        when(pendingBookRemovalRepository.findByLibraryId(LIBRARY_ID)).thenReturn(pending(ids(1, 20), 40, Instant.EPOCH));
+
+        removalGuard.admit(library, fingerprints(10L, 11, 35), 40);
+
+        assertEquals(ids(21, 35), captureSaved().stream().map(PendingBookRemovalEntity::getBookId).collect(Collectors.toSet()));
+        verify(pendingBookRemovalRepository, never()).deleteByLibraryId(anyLong());
+    }
+
+    @Test
+    void aggregatesPersistedRemovals() {
+        Instant first = Instant.parse("2025-01-01T00:00:00Z");
+        List<PendingBookRemovalEntity> rows = new ArrayList<>(pending(ids(1, 10), 40, first.plusSeconds(60)));
+        rows.addAll(pending(ids(11, 15), 60, first));
+        when(pendingBookRemovalRepository.findByLibraryId(LIBRARY_ID)).thenReturn(rows);
+        when(libraryRepository.findById(LIBRARY_ID)).thenReturn(Optional.of(LibraryEntity.builder().id(LIBRARY_ID).name("Books").build()));
+
+        PendingRemoval pendingRemoval = removalGuard.getPendingRemoval(LIBRARY_ID).orElseThrow();
+
+        assertEquals("Books", pendingRemoval.getLibraryName());
+        assertEquals(ids(1, 15), pendingRemoval.getBookIds());
+        assertEquals(60, pendingRemoval.getBooksInScope());
+        assertEquals(first, pendingRemoval.getDetectedAt());
+    }
+
+    @Test
+    void noPendingRemovalWithoutRows() {
+        when(pendingBookRemovalRepository.findByLibraryId(LIBRARY_ID)).thenReturn(List.of());
+
+        assertTrue(removalGuard.getPendingRemoval(LIBRARY_ID).isEmpty());
+    }
+
+    @Test
+    void takingThePendingRemovalDeletesIt() {
+        when(pendingBookRemovalRepository.findByLibraryId(LIBRARY_ID)).thenReturn(pending(ids(1, 12), 20, Instant.EPOCH));
+
+        PendingRemoval pendingRemoval = removalGuard.takePendingRemoval(LIBRARY_ID).orElseThrow();
+
+        assertEquals(ids(1, 12), pendingRemoval.getBookIds());
+        verify(pendingBookRemovalRepository).deleteByLibraryId(LIBRARY_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingBookRemovalEntity> captureSaved() {
+        ArgumentCaptor<List<PendingBookRemovalEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pendingBookRemovalRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private LibraryPathEntity mountedPath(long id) throws IOException {
+        Path path = Files.createDirectories(root.resolve("path-" + id));
+        Files.writeString(path.resolve("book.epub"), "content");
+        return LibraryPathEntity.builder().id(id).path(path.toString()).build();
+    }
+
+    private static LibraryEntity library(LibraryPathEntity... paths) {
+        return LibraryEntity.builder().id(LIBRARY_ID).name("Books").libraryPaths(List.of(paths)).build();
+    }
+
+    private static List<BookFingerprint> fingerprints(long libraryPathId, long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            BookFingerprint fingerprint = mock(BookFingerprint.class);
+            lenient().when(fingerprint.getId()).thenReturn(id);
+            lenient().when(fingerprint.getLibraryPathId()).thenReturn(libraryPathId);
+            return fingerprint;
+        }).toList();
+    }
+
+    private static List<PendingBookRemovalEntity> pending(Set<Long> bookIds, int booksInScope, Instant detectedOn) {
+        return bookIds.stream()
+                .map(bookId -> PendingBookRemovalEntity.builder()
+                        .libraryId(LIBRARY_ID)
+                        .bookId(bookId)
+                        .booksInScope(booksInScope)
+                        .detectedOn(detectedOn)
+                        .build())
+                .toList();
+    }
+
+    private static Set<Long> ids(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).boxed().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,189 @@
+package com.adityachandel.booklore.service.fileprocessor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpubInspectorTest {
+
+    private static final String CONTAINER = """
+            <?xml version="1.0"?>
+            <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+              <rootfiles>
+                <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+              </rootfiles>
+            </container>
+            """;
+
+    private static final byte[] COVER = {1, 2, 3, 4};
+
+    @TempDir
+    Path directory;
+
+    private final EpubInspector epubInspector = new EpubInspector();
+
+    @Test
+    void readsPackageMetadata() throws IOException {
+        Path epub = epub("book.epub", opf(epub3Manifest("images/cover.jpg"), ""), Map.of("OEBPS/images/cover.jpg", COVER));
+
+        EpubPackage epubPackage = epubInspector.inspect(epub, false);
+
+        assertEquals("The Title", epubPackage.getTitle());
+        assertEquals("A description", epubPackage.getDescription());
+        assertEquals("Publisher", epubPackage.getPublisher());
+        assertEquals("en", epubPackage.getLanguage());
+        assertEquals("2020-01-01", epubPackage.getDate());
+        assertEquals(List.of("urn:isbn:9780000000001"), epubPackage.getIdentifiers());
+        assertEquals(Set.of("First Author", "Second Author"), epubPackage.getAuthors());
+        assertEquals(List.of("Fiction", "Adventure"), epubPackage.getSubjects());
+        assertNull(epubPackage.getCover());
+        assertNotNull(epubPackage.getMetadataHash());
+        assertNotNull(epubPackage.getCoverHash());
+    }
+
+    @Test
+    void readsCoverDeclaredAsCoverImage() throws IOException {
+        Path epub = epub("book.epub", opf(epub3Manifest("images/cover.jpg"), ""), Map.of("OEBPS/images/cover.jpg", COVER));
+
+        assertArrayEquals(COVER, epubInspector.inspect(epub, true).getCover());
+    }
+
+    @Test
+    void readsCoverDeclaredThroughMetaElement() throws IOException {
+        String manifest = """
+                <item id="img1" href="images/first.jpg" media-type="image/jpeg"/>
+                <item id="front" href="../Images/My%20Front.jpg" media-type="image/jpeg"/>
+                """;
+        Path epub = epub("book.epub", opf(manifest, "<meta name=\"cover\" content=\"front\"/>"),
+                Map.of("OEBPS/images/first.jpg", new byte[]{9}, "Images/My Front.jpg", COVER));
+
+        assertArrayEquals(COVER, epubInspector.inspect(epub, true).getCover());
+    }
+
+    @Test
+    void fallsBackToImagesNamedCover() throws IOException {
+        String manifest = """
+                <item id="img1" href="images/first.jpg" media-type="image/jpeg"/>
+                <item id="img2" href="images/Cover.png" media-type="image/png"/>
+                """;
+        Path epub = epub("book.epub", opf(manifest, ""),
+                Map.of("OEBPS/images/first.jpg", new byte[]{9}, "OEBPS/images/Cover.png", COVER));
+
+        assertArrayEquals(COVER, epubInspector.inspect(epub, true).getCover());
+    }
+
+    @Test
+    void hasNoCoverWithoutImages() throws IOException {
+        Path epub = epub("book.epub", opf("<item id=\"text\" href=\"text.xhtml\" media-type=\"application/xhtml+xml\"/>", ""), Map.of());
+
+        EpubPackage epubPackage = epubInspector.inspect(epub, true);
+
+        assertNull(epubPackage.getCover());
+        assertNull(epubPackage.getCoverHash());
+    }
+
+    @Test
+    void failsWithoutContainer() throws IOException {
+        Path epub = zip("broken.epub", Map.of("OEBPS/content.opf", opf("", "").getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IOException.class, () -> epubInspector.inspect(epub, false));
+    }
+
+    @Test
+    void failsOnMalformedPackageDocument() throws IOException {
+        Path epub = epub("broken.epub", "<package><metadata>", Map.of());
+
+        assertThrows(IOException.class, () -> epubInspector.inspect(epub, false));
+    }
+
+    @Test
+    void regionHashesMatchInspection() throws IOException {
+        Path epub = epub("book.epub", opf(epub3Manifest("images/cover.jpg"), ""), Map.of("OEBPS/images/cover.jpg", COVER));
+
+        EpubPackage epubPackage = epubInspector.inspect(epub, false);
+        RegionHashes regionHashes = epubInspector.hashRegions(epub);
+
+        assertEquals(epubPackage.getMetadataHash(), regionHashes.metadataHash());
+        assertEquals(epubPackage.getCoverHash(), regionHashes.coverHash());
+    }
+
+    @Test
+    void regionHashesChangeOnlyForTheEditedRegion() throws IOException {
+        String opf = opf(epub3Manifest("images/cover.jpg"), "");
+        RegionHashes original = epubInspector.hashRegions(epub("original.epub", opf, Map.of("OEBPS/images/cover.jpg", COVER)));
+        RegionHashes newCover = epubInspector.hashRegions(epub("cover.epub", opf, Map.of("OEBPS/images/cover.jpg", new byte[]{4, 3, 2, 1})));
+        RegionHashes newMetadata = epubInspector.hashRegions(epub("metadata.epub", opf.replace("The Title", "Another Title"),
+                Map.of("OEBPS/images/cover.jpg", COVER)));
+
+        assertEquals(original.metadataHash(), newCover.metadataHash());
+        assertNotEquals(original.coverHash(), newCover.coverHash());
+        assertNotEquals(original.metadataHash(), newMetadata.metadataHash());
+        assertEquals(original.coverHash(), newMetadata.coverHash());
+    }
+
+    private static String epub3Manifest(String coverHref) {
+        return """
+                <item id="text" href="text.xhtml" media-type="application/xhtml+xml"/>
+                <item id="cover" href="%s" media-type="image/jpeg" properties="cover-image"/>
+                """.formatted(coverHref);
+    }
+
+    private static String opf(String manifest, String extraMetadata) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <package xmlns="http://www.idpf.org/2007/opf" version="3.0">
+                  <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                    <dc:title>The Title</dc:title>
+                    <dc:description>A description</dc:description>
+                    <dc:publisher>Publisher</dc:publisher>
+                    <dc:identifier>urn:isbn:9780000000001</dc:identifier>
+                    <dc:language>en</dc:language>
+                    <dc:date>2020-01-01</dc:date>
+                    <dc:creator>First Author</dc:creator>
+                    <dc:creator>Second Author</dc:creator>
+                    <dc:subject>Fiction</dc:subject>
+                    <dc:subject>Adventure</dc:subject>
+                    %s
+                  </metadata>
+                  <manifest>
+                    %s
+                  </manifest>
+                </package>
+                """.formatted(extraMetadata, manifest);
+    }
+
+    private Path epub(String fileName, String opf, Map<String, byte[]> resources) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+        entries.put("META-INF/container.xml", CONTAINER.getBytes(StandardCharsets.UTF_8));
+        entries.put("OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+        entries.putAll(resources);
+        return zip(fileName, entries);
+    }
+
+    private Path zip(String fileName, Map<String, byte[]> entries) throws IOException {
+        Path file = directory.resolve(fileName);
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+                zipOutputStream.write(entry.getValue());
+                zipOutputStream.closeEntry();
+            }
+        }
+        return file;
+    }
+}
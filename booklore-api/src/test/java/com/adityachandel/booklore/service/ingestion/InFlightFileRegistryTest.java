@@ -0,0 +1,81 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightFileRegistryTest {
+
+    private final InFlightFileRegistry registry = new InFlightFileRegistry();
+
+    @Test
+    void claimIsExclusiveUntilReleased() {
+        Path file = Path.of("/library/book.epub");
+
+        assertTrue(registry.tryClaim(file));
+        assertFalse(registry.tryClaim(file));
+
+        registry.release(file);
+        assertTrue(registry.tryClaim(file));
+    }
+
+    @Test
+    void normalizesPathsBeforeClaiming() {
+        assertTrue(registry.tryClaim(Path.of("/library/author/../book.epub")));
+        assertFalse(registry.tryClaim(Path.of("/library/book.epub")));
+    }
+
+    @Test
+    void awaitReleaseReturnsImmediatelyForUnclaimedPaths() throws InterruptedException {
+        assertFalse(registry.awaitRelease(Path.of("/library/book.epub")));
+    }
+
+    @Test
+    void awaitReleaseBlocksUntilTheClaimIsReleased() throws Exception {
+        Path file = Path.of("/library/book.epub");
+        registry.tryClaim(file);
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return registry.awaitRelease(file);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> waiter.get(200, TimeUnit.MILLISECONDS));
+
+        registry.release(file);
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void claimWaitsForTheHolderAndDoesNotReclaim() throws Exception {
+        Path file = Path.of("/library/book.epub");
+        registry.tryClaim(file);
+
+        CompletableFuture<Boolean> claimer = CompletableFuture.supplyAsync(() -> {
+            try {
+                return registry.claim(file);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> claimer.get(200, TimeUnit.MILLISECONDS));
+
+        registry.release(file);
+        assertFalse(claimer.get(5, TimeUnit.SECONDS));
+        assertTrue(registry.tryClaim(file));
+    }
+
+    @Test
+    void releasingAnUnclaimedPathIsHarmless() {
+        Path file = Path.of("/library/book.epub");
+        registry.release(file);
+        assertTrue(registry.tryClaim(file));
+    }
+}
@@ -0,0 +1,134 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.config.IngestionProperties;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.LibraryProcessingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class IngestionBatchingIT {
+
+    private static final int BOOK_COUNT = 200;
+    private static final double MAX_BATCHED_STATEMENTS_PER_BOOK = 12;
+    private static final Path WORK_DIR = createWorkDir();
+
+    @Container
+    @SuppressWarnings("resource")
+    static final MariaDBContainer<?> mariadb = new MariaDBContainer<>("mariadb:11.4.5")
+            .withDatabaseName("booklore")
+            .withUsername("root")
+            .withPassword("password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mariadb::getJdbcUrl);
+        registry.add("spring.datasource.username", mariadb::getUsername);
+        registry.add("spring.datasource.password", mariadb::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("app.path-config", () -> WORK_DIR.resolve("config").toString());
+    }
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private LibraryProcessingService libraryProcessingService;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CoverGenerationQueue coverGenerationQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchedWritesIssueFewerStatementsPerBook() throws IOException, InterruptedException {
+        double unbatched = measureStatementsPerBook("unbatched", 1);
+        double batched = measureStatementsPerBook("batched", 50);
+        assertTrue(batched <= MAX_BATCHED_STATEMENTS_PER_BOOK, "batched ingestion issued " + batched + " statements per book");
+        assertTrue(batched < unbatched, "batched " + batched + " vs unbatched " + unbatched + " statements per book");
+    }
+
+    private double measureStatementsPerBook(String name, int writeBatchSize) throws IOException, InterruptedException {
+        ingestionProperties.setWriteBatchSize(writeBatchSize);
+        Path libraryDir = Files.createDirectories(WORK_DIR.resolve(name));
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            writePdf(libraryDir.resolve(name + "-" + i + ".pdf"), "Title " + i, "Author " + (i % 10));
+        }
+
+        LibraryEntity library = LibraryEntity.builder().name(name).icon("pi pi-book").build();
+        library.setLibraryPaths(new ArrayList<>(List.of(LibraryPathEntity.builder().path(libraryDir.toString()).library(library).build())));
+        library = libraryRepository.save(library);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        libraryProcessingService.processLibrary(library.getId());
+        awaitCovers();
+        double statementsPerBook = (double) statistics.getPrepareStatementCount() / BOOK_COUNT;
+
+        assertEquals(BOOK_COUNT, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book WHERE library_id = ?", Integer.class, library.getId()));
+        assertEquals(BOOK_COUNT, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_metadata m JOIN book b ON b.id = m.book_id WHERE b.library_id = ? AND m.title LIKE 'Title %'",
+                Integer.class, library.getId()));
+        return statementsPerBook;
+    }
+
+    private void awaitCovers() throws InterruptedException {
+        while (coverGenerationQueue.getPending() > 0) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static void writePdf(Path path, String title, String author) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            PDDocumentInformation information = new PDDocumentInformation();
+            information.setTitle(title);
+            information.setAuthor(author);
+            document.setDocumentInformation(information);
+            document.save(path.toFile());
+        }
+    }
+
+    private static Path createWorkDir() {
+        try {
+            return Files.createTempDirectory("booklore-ingestion-it");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.adityachandel.booklore.service.ingestion;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.service.ingestion.ScanCheckpoint.Cursor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanCheckpointTest {
+
+    @Test
+    void cursorOrdersByLibraryPathBeforeRelativePath() {
+        assertTrue(new Cursor(1L, "z.epub").isBefore(new Cursor(2L, "a.epub")));
+        assertFalse(new Cursor(2L, "a.epub").isBefore(new Cursor(1L, "z.epub")));
+    }
+
+    @Test
+    void cursorComparesPathsNameByName() {
+        assertTrue(new Cursor(1L, "a/z.epub").isBefore(new Cursor(1L, "a-b/a.epub")));
+        assertTrue(new Cursor(1L, "a/b.epub").isBefore(new Cursor(1L, "a/b/c.epub")));
+        assertFalse(new Cursor(1L, "b.epub").isBefore(new Cursor(1L, "b.epub")));
+    }
+
+    @Test
+    void cursorJoinsSubPathAndFileName() {
+        assertEquals(new Cursor(1L, "book.epub"), Cursor.of(file(1L, "", "book.epub")));
+        assertEquals(new Cursor(1L, "author/book.epub"), Cursor.of(file(1L, "author", "book.epub")));
+    }
+
+    @Test
+    void commitsOnlyTheCompletedPrefix() {
+        ScanCheckpoint checkpoint = new ScanCheckpoint();
+        LibraryFile first = file(1L, "a", "1.epub");
+        LibraryFile second = file(1L, "a", "2.epub");
+        LibraryFile third = file(1L, "b", "3.epub");
+        checkpoint.discovered(first);
+        checkpoint.discovered(second);
+        checkpoint.discovered(third);
+
+        checkpoint.completed(second);
+        assertNull(checkpoint.getCommitted());
+
+        checkpoint.completed(first);
+        assertEquals(Cursor.of(second), checkpoint.getCommitted());
+        assertTrue(checkpoint.isCommitted(first));
+        assertFalse(checkpoint.isCommitted(third));
+
+        checkpoint.completed(third);
+        assertEquals(Cursor.of(third), checkpoint.getCommitted());
+    }
+
+    @Test
+    void ignoresCompletionOfUndiscoveredFiles() {
+        ScanCheckpoint checkpoint = new ScanCheckpoint();
+        checkpoint.completed(file(1L, "", "unknown.epub"));
+        assertNull(checkpoint.getCommitted());
+    }
+
+    @Test
+    void resumedCheckpointSkipsFilesUpToTheCursor() {
+        ScanCheckpoint checkpoint = new ScanCheckpoint(new Cursor(1L, "m/book.epub"));
+        assertTrue(checkpoint.isCommitted(file(1L, "a", "book.epub")));
+        assertTrue(checkpoint.isCommitted(file(1L, "m", "book.epub")));
+        assertFalse(checkpoint.isCommitted(file(1L, "n", "book.epub")));
+        assertFalse(checkpoint.isCommitted(file(2L, "a", "book.epub")));
+    }
+
+    private static LibraryFile file(long libraryPathId, String subPath, String fileName) {
+        return LibraryFile.builder()
+                .libraryPathEntity(LibraryPathEntity.builder().id(libraryPathId).build())
+                .fileSubPath(subPath)
+                .fileName(fileName)
+                .build();
+    }
+}
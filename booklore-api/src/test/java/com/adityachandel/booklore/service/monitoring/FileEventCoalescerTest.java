@@ -0,0 +1,127 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileEventCoalescerTest {
+
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(200);
+
+    @TempDir
+    Path directory;
+
+    private final BlockingQueue<FileChangeEvent> dispatched = new LinkedBlockingQueue<>();
+    private FileEventCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+    }
+
+    @Test
+    void dispatchesOnceAfterTheQuietPeriod() throws Exception {
+        coalescer = new FileEventCoalescer(QUIET_PERIOD, 10, dispatched::add);
+        Path file = Files.writeString(directory.resolve("book.epub"), "content");
+
+        long started = System.nanoTime();
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_MODIFY));
+
+        FileChangeEvent event = dispatched.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertTrue(System.nanoTime() - started >= QUIET_PERIOD.toNanos());
+        assertEquals(StandardWatchEventKinds.ENTRY_CREATE, event.getEventKind());
+        assertNull(dispatched.poll(QUIET_PERIOD.toMillis() * 2, TimeUnit.MILLISECONDS));
+        assertEquals(0, coalescer.getPending());
+    }
+
+    @Test
+    void deleteWinsOverEarlierEvents() throws Exception {
+        coalescer = new FileEventCoalescer(QUIET_PERIOD, 10, dispatched::add);
+        Path file = directory.resolve("gone.epub");
+
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_DELETE));
+
+        FileChangeEvent event = dispatched.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(StandardWatchEventKinds.ENTRY_DELETE, event.getEventKind());
+    }
+
+    @Test
+    void holdsChangesWhileTheFileKeepsGrowing() throws Exception {
+        coalescer = new FileEventCoalescer(QUIET_PERIOD, 10, dispatched::add);
+        Path file = Files.writeString(directory.resolve("copying.epub"), "a");
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_CREATE));
+
+        long deadline = System.nanoTime() + QUIET_PERIOD.toNanos() * 4;
+        while (System.nanoTime() < deadline) {
+            Files.writeString(file, Files.readString(file) + "a");
+            Thread.sleep(50);
+        }
+        assertTrue(dispatched.isEmpty());
+
+        assertNotNull(dispatched.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsNewPathsWhenFullButMergesKnownOnes() throws Exception {
+        coalescer = new FileEventCoalescer(Duration.ofMinutes(1), 2, dispatched::add);
+        Path first = directory.resolve("1.epub");
+        Path second = directory.resolve("2.epub");
+
+        assertTrue(coalescer.submit(event(first, StandardWatchEventKinds.ENTRY_CREATE)));
+        assertTrue(coalescer.submit(event(second, StandardWatchEventKinds.ENTRY_CREATE)));
+        assertFalse(coalescer.submit(event(directory.resolve("3.epub"), StandardWatchEventKinds.ENTRY_CREATE)));
+        assertTrue(coalescer.submit(event(first, StandardWatchEventKinds.ENTRY_MODIFY)));
+        assertEquals(2, coalescer.getPending());
+    }
+
+    @Test
+    void requeuesChangesTheDispatcherRefuses() throws Exception {
+        BlockingQueue<FileChangeEvent> attempts = new LinkedBlockingQueue<>();
+        coalescer = new FileEventCoalescer(QUIET_PERIOD, 10, event -> attempts.add(event) && attempts.size() > 1);
+        Path file = Files.writeString(directory.resolve("book.epub"), "content");
+
+        coalescer.submit(event(file, StandardWatchEventKinds.ENTRY_CREATE));
+
+        assertNotNull(attempts.poll(5, TimeUnit.SECONDS));
+        assertNotNull(attempts.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void discardsAndReturnsPendingChanges() throws IOException {
+        coalescer = new FileEventCoalescer(Duration.ofMinutes(1), 10, dispatched::add);
+        Path removed = Files.createDirectories(directory.resolve("removed"));
+        Path kept = directory.resolve("kept.epub");
+
+        coalescer.submit(event(removed.resolve("book.epub"), StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.submit(event(kept, StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.discardUnder(removed);
+
+        List<FileChangeEvent> remaining = coalescer.shutdown();
+        coalescer = null;
+        assertEquals(1, remaining.size());
+        assertEquals(kept, remaining.getFirst().getFilePath());
+    }
+
+    private FileChangeEvent event(Path file, WatchEvent.Kind<?> kind) {
+        return new FileChangeEvent(this, file, kind, directory);
+    }
+}
@@ -0,0 +1,134 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollingChangeDetectorTest {
+
+    private static final Duration MIN_INTERVAL = Duration.ofMillis(50);
+    private static final Duration MAX_INTERVAL = Duration.ofMillis(100);
+    private static final long BASELINE_MILLIS = 300;
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path staging;
+
+    private final BlockingQueue<FileChangeEvent> fileEvents = new LinkedBlockingQueue<>();
+    private final BlockingQueue<DirectoryChangeEvent> directoryEvents = new LinkedBlockingQueue<>();
+    private PollingChangeDetector detector;
+
+    @AfterEach
+    void tearDown() {
+        detector.shutdown();
+    }
+
+    @Test
+    void baselineDoesNotEmitExistingFiles() throws Exception {
+        Files.writeString(root.resolve("existing.epub"), "content");
+        start(Duration.ofHours(1));
+
+        Thread.sleep(BASELINE_MILLIS);
+        assertTrue(fileEvents.isEmpty());
+        assertTrue(detector.isPolled(root));
+    }
+
+    @Test
+    void emitsCreatedAndDeletedBookFiles() throws Exception {
+        Path existing = Files.writeString(root.resolve("existing.epub"), "content");
+        start(Duration.ofHours(1));
+        Thread.sleep(BASELINE_MILLIS);
+
+        Path created = Files.writeString(root.resolve("created.pdf"), "content");
+        Files.writeString(root.resolve("notes.txt"), "content");
+        FileChangeEvent createEvent = fileEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(createEvent);
+        assertEquals(created, createEvent.getFilePath());
+        assertEquals(StandardWatchEventKinds.ENTRY_CREATE, createEvent.getEventKind());
+        assertEquals(root, createEvent.getWatchedFolder());
+
+        Files.delete(existing);
+        FileChangeEvent deleteEvent = fileEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(deleteEvent);
+        assertEquals(existing, deleteEvent.getFilePath());
+        assertEquals(StandardWatchEventKinds.ENTRY_DELETE, deleteEvent.getEventKind());
+        assertNull(fileEvents.poll(BASELINE_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void skipsRestattingFilesInUnchangedDirectoriesBetweenContentChecks() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        start(Duration.ofHours(1));
+        Thread.sleep(BASELINE_MILLIS);
+
+        Files.writeString(book, " more", StandardOpenOption.APPEND);
+        assertNull(fileEvents.poll(BASELINE_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void contentChecksDetectInPlaceModifications() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        start(Duration.ZERO);
+        Thread.sleep(BASELINE_MILLIS);
+
+        Files.writeString(book, " more", StandardOpenOption.APPEND);
+        FileChangeEvent event = fileEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(book, event.getFilePath());
+        assertEquals(StandardWatchEventKinds.ENTRY_MODIFY, event.getEventKind());
+    }
+
+    @Test
+    void emitsDirectoryEventsWithoutReplayingTheNewDirectoryContents() throws Exception {
+        Path removed = Files.createDirectories(root.resolve("removed"));
+        Files.writeString(removed.resolve("book.epub"), "content");
+        start(Duration.ofHours(1));
+        Thread.sleep(BASELINE_MILLIS);
+
+        Path staged = Files.createDirectories(staging.resolve("added"));
+        Files.writeString(staged.resolve("book.epub"), "content");
+        Path added = Files.move(staged, root.resolve("added"));
+        DirectoryChangeEvent createEvent = directoryEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(createEvent);
+        assertEquals(added, createEvent.getDirectory());
+        assertEquals(StandardWatchEventKinds.ENTRY_CREATE, createEvent.getEventKind());
+
+        Files.delete(removed.resolve("book.epub"));
+        Files.delete(removed);
+        DirectoryChangeEvent deleteEvent = directoryEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(deleteEvent);
+        assertEquals(removed, deleteEvent.getDirectory());
+        assertEquals(StandardWatchEventKinds.ENTRY_DELETE, deleteEvent.getEventKind());
+
+        assertTrue(fileEvents.stream().noneMatch(event -> event.getFilePath().startsWith(added)));
+    }
+
+    @Test
+    void unregisterStopsPolling() throws Exception {
+        start(Duration.ofHours(1));
+        Thread.sleep(BASELINE_MILLIS);
+
+        detector.unregister(root);
+        assertFalse(detector.isPolled(root));
+        Files.writeString(root.resolve("book.epub"), "content");
+        assertNull(fileEvents.poll(BASELINE_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    private void start(Duration contentCheckInterval) {
+        detector = new PollingChangeDetector(MIN_INTERVAL, MAX_INTERVAL, contentCheckInterval, fileEvents::add, directoryEvents::add);
+        detector.register(root);
+    }
+}
@@ -0,0 +1,118 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedEventExecutorTest {
+
+    @Test
+    void handlesEventsForOnePathInOrderOnOneThread() throws Exception {
+        Path file = Path.of("/library/book.epub");
+        int eventCount = 50;
+        CountDownLatch handled = new CountDownLatch(eventCount);
+        List<FileChangeEvent> order = new CopyOnWriteArrayList<>();
+        Map<String, Boolean> threads = new ConcurrentHashMap<>();
+        StripedEventExecutor executor = new StripedEventExecutor(4, 100, event -> {
+            order.add(event);
+            threads.put(Thread.currentThread().getName(), true);
+            handled.countDown();
+        }, new SimpleMeterRegistry());
+
+        List<FileChangeEvent> submitted = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            FileChangeEvent event = event(file);
+            submitted.add(event);
+            assertTrue(executor.offer(event));
+        }
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(submitted, order);
+        assertEquals(1, threads.size());
+        executor.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void rejectsEventsWhenTheStripeIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        StripedEventExecutor executor = new StripedEventExecutor(1, 1, event -> {
+            started.countDown();
+            awaitQuietly(release);
+        }, new SimpleMeterRegistry());
+
+        assertTrue(executor.offer(event(Path.of("/library/1.epub"))));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.offer(event(Path.of("/library/2.epub"))));
+        assertFalse(executor.offer(event(Path.of("/library/3.epub"))));
+        assertEquals(1, executor.getQueueDepth());
+
+        release.countDown();
+        executor.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shutdownReturnsOnlyQueuedEventsAndStopsAcceptingNewOnes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        StripedEventExecutor executor = new StripedEventExecutor(1, 10, event -> {
+            started.countDown();
+            awaitQuietly(release);
+        }, new SimpleMeterRegistry());
+
+        FileChangeEvent inProgress = event(Path.of("/library/1.epub"));
+        FileChangeEvent queued = event(Path.of("/library/2.epub"));
+        executor.offer(inProgress);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.offer(queued);
+
+        List<FileChangeEvent> remaining = executor.shutdown(Duration.ofMillis(100));
+        release.countDown();
+
+        assertEquals(List.of(queued), remaining);
+        assertFalse(executor.offer(event(Path.of("/library/3.epub"))));
+    }
+
+    @Test
+    void interruptsHandlersStillRunningAfterTheGracePeriod() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        StripedEventExecutor executor = new StripedEventExecutor(1, 10, event -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }, new SimpleMeterRegistry());
+
+        executor.offer(event(Path.of("/library/stuck.epub")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(executor.shutdown(Duration.ofMillis(100)).isEmpty());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private FileChangeEvent event(Path file) {
+        return new FileChangeEvent(this, file, StandardWatchEventKinds.ENTRY_MODIFY, file.getParent());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -36,6 +36,10 @@ export class AppComponent implements OnInit {
       this.bookService.handleBookUpdate(JSON.parse(message.body));
     });
 
+    this.rxStompService.watch('/topic/books-update').subscribe((message: Message) => {
+      this.bookService.handleBooksUpdate(JSON.parse(message.body));
+    });
+
     this.rxStompService.watch('/topic/log').subscribe((message: Message) => {
       const logNotification = parseLogNotification(message.body);
       this.eventService.handleIncomingLog(logNotification);
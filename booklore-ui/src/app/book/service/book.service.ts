@@ -269,6 +269,13 @@ export class BookService {
     this.bookStateSubject.next({...currentState, books: updatedBooks});
   }
 
+  handleBooksUpdate(updatedBooks: Book[]) {
+    const updatedById = new Map(updatedBooks.map(book => [book.id, book]));
+    const currentState = this.bookStateSubject.value;
+    const books = (currentState.books || []).map(book => updatedById.get(book.id) ?? book);
+    this.bookStateSubject.next({...currentState, books});
+  }
+
   handleBookMetadataUpdate(bookId: number, updatedMetadata: BookMetadata) {
     const currentState = this.bookStateSubject.value;
     const updatedBooks = (currentState.books || []).map(book => {